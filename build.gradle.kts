@@ -1,5 +1,6 @@
 plugins {
 	id("java")
+	id("me.champeau.jmh") version "0.7.2"
 	id("org.springframework.boot") version "3.2.5"
 	id("io.spring.dependency-management") version "1.1.4"
 	kotlin("jvm") version "1.9.22"
@@ -23,6 +24,7 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-security")
+	implementation("org.springframework.boot:spring-boot-starter-aop")
 	implementation("org.springframework.security:spring-security-config")
 	implementation("org.springframework.security:spring-security-web")
 	implementation("org.springframework.security:spring-security-crypto")
@@ -39,3 +41,22 @@ dependencies {
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// Бенчмарки из src/jmh: ./gradlew jmh, выборочно — ./gradlew jmh -PjmhInclude=GameBoardBenchmark
+jmh {
+	warmupIterations.set(3)
+	iterations.set(5)
+	fork.set(1)
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+	findProperty("jmhInclude")?.let { includes.set(listOf(it.toString())) }
+}
+
+// Партии ИИ против ИИ без Spring: ./gradlew selfPlay --args="--a=HARD --b=EXPERT --games=100000"
+tasks.register<JavaExec>("selfPlay") {
+	group = "verification"
+	description = "Runs headless AI-vs-AI self-play and prints win rates and move latency"
+	classpath = sourceSets["main"].runtimeClasspath
+	mainClass.set("com.example.ai.SelfPlaySimulator")
+	jvmArgs("-XX:+UseParallelGC")
+}
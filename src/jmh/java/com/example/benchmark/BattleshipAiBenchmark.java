@@ -0,0 +1,72 @@
+package com.example.benchmark;
+
+import com.example.ai.BattleshipAI;
+import com.example.ai.MonteCarloTargeting;
+import com.example.model.BoardStorage;
+import com.example.model.Difficulty;
+import com.example.model.GameBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Расстановка флота ИИ и выбор выстрела на каждом уровне в разных стадиях партии.
+ * EXPERT считается детерминированно в одном потоке, чтобы мерить саму выборку, а не бюджет хода.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BattleshipAiBenchmark {
+
+    @State(Scope.Thread)
+    public static class MoveState {
+        @Param({"EASY", "HARD", "EXPERT"})
+        public Difficulty difficulty;
+
+        @Param({"EMPTY", "MID", "ENDGAME"})
+        public BoardFixtures.Stage stage;
+
+        ForkJoinPool pool;
+        BattleshipAI ai;
+        GameBoard board;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            pool = new ForkJoinPool(1);
+            MonteCarloTargeting.Settings settings = new MonteCarloTargeting.Settings(2_000, Duration.ZERO, BoardFixtures.SEED);
+            ai = new BattleshipAI(difficulty, new Random(BoardFixtures.SEED), settings, pool);
+            // ИИ узнаёт результаты всех выстрелов, которыми поле доведено до стадии
+            board = BoardFixtures.board(stage, BoardStorage.PACKED, ai);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PlacementState {
+        BattleshipAI ai;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            ai = new BattleshipAI(Difficulty.HARD, new Random(BoardFixtures.SEED), null, null);
+        }
+    }
+
+    @Benchmark
+    public int[] makeMove(MoveState state) {
+        return state.ai.makeMove(state.board);
+    }
+
+    // Включает создание пустого поля PACKED — сравнивать с GameBoardBenchmark.construct
+    @Benchmark
+    public GameBoard placeShips(PlacementState state) {
+        GameBoard board = new GameBoard(BoardStorage.PACKED);
+        state.ai.placeShips(board);
+        return board;
+    }
+}
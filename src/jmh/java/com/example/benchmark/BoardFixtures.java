@@ -0,0 +1,109 @@
+package com.example.benchmark;
+
+import com.example.ai.BattleshipAI;
+import com.example.ai.FleetGenerator;
+import com.example.model.BoardStorage;
+import com.example.model.Cell;
+import com.example.model.Difficulty;
+import com.example.model.GameBoard;
+import com.example.model.PlacementTable;
+import com.example.model.Ship;
+import com.example.model.ShotResult;
+
+import java.util.Random;
+
+/**
+ * Воспроизводимые позиции для бенчмарков: флот из FleetGenerator и выстрелы уровня HARD
+ * с фиксированными зёрнами, так что между прогонами меряется одно и то же.
+ */
+public final class BoardFixtures {
+    static final long SEED = 20240501L;
+
+    public enum Stage {
+        // Флот расставлен, выстрелов нет
+        EMPTY,
+        // 30 выстрелов
+        MID,
+        // Потоплены все корабли, кроме последнего
+        ENDGAME
+    }
+
+    private BoardFixtures() {
+    }
+
+    static int[] fleet(long seed) {
+        int[] placements = new int[FleetGenerator.STANDARD_FLEET.length];
+        FleetGenerator.generate(FleetGenerator.STANDARD_FLEET, new Random(seed), placements);
+        return placements;
+    }
+
+    static Ship ship(int placementId) {
+        return new Ship(PlacementTable.startX(placementId), PlacementTable.startY(placementId),
+                PlacementTable.isHorizontal(placementId), PlacementTable.size(placementId));
+    }
+
+    static GameBoard board(Stage stage, BoardStorage storage) {
+        return board(stage, storage, null);
+    }
+
+    /**
+     * Расставляет флот и доводит поле до нужной стадии; если observer задан,
+     * ему сообщаются результаты всех выстрелов, как будто стрелял он.
+     */
+    static GameBoard board(Stage stage, BoardStorage storage, BattleshipAI observer) {
+        GameBoard board = new GameBoard(storage);
+        for (int id : fleet(SEED)) {
+            board.placeShip(ship(id));
+        }
+
+        BattleshipAI shooter = new BattleshipAI(Difficulty.HARD, new Random(SEED), null, null);
+        int shots = 0;
+        int sunk = 0;
+        while (stage == Stage.MID ? shots < 30 : stage == Stage.ENDGAME && sunk < FleetGenerator.STANDARD_FLEET.length - 1) {
+            int[] move = shooter.makeMove(board);
+            ShotResult result = board.shoot(move[0], move[1]);
+            boolean hit = result != ShotResult.MISS;
+            shooter.updateStrategy(move[0], move[1], hit, result == ShotResult.SUNK);
+            if (observer != null) {
+                observer.updateStrategy(move[0], move[1], hit, result == ShotResult.SUNK);
+            }
+            shots++;
+            if (result == ShotResult.SUNK) {
+                sunk++;
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Копия поля из board(stage, storage): тот же флот и те же выстрелы, но без ИИ — быстро,
+     * поэтому годится для подготовки сотен одноразовых полей.
+     */
+    static GameBoard copy(GameBoard template, BoardStorage storage) {
+        GameBoard board = new GameBoard(storage);
+        for (int id : fleet(SEED)) {
+            board.placeShip(ship(id));
+        }
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                Cell.CellState state = template.getCellState(x, y);
+                if (state == Cell.CellState.HIT || state == Cell.CellState.MISS) {
+                    board.shoot(x, y);
+                }
+            }
+        }
+        return board;
+    }
+
+    // Первая клетка, по которой ещё можно стрелять
+    static int[] freeCell(GameBoard board) {
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                if (board.canShoot(x, y)) {
+                    return new int[]{x, y};
+                }
+            }
+        }
+        throw new IllegalStateException("No free cells");
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.benchmark;
+
+import com.example.model.BoardStorage;
+import com.example.model.Game;
+import com.example.model.GameBoard;
+import com.example.model.PlacementTable;
+import com.example.model.Ship;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поле и ход игры: создание, проверка и установка корабля, выстрел, проверка конца игры.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameBoardBenchmark {
+    // Одноразовых полей на один вызов бенчмарка, который портит поле
+    static final int BATCH = 1024;
+
+    @State(Scope.Thread)
+    public static class StorageState {
+        @Param({"CELLS", "PACKED"})
+        public BoardStorage storage;
+    }
+
+    @State(Scope.Thread)
+    public static class PositionState {
+        @Param({"CELLS", "PACKED"})
+        public BoardStorage storage;
+
+        @Param({"EMPTY", "MID", "ENDGAME"})
+        public BoardFixtures.Stage stage;
+
+        GameBoard board;
+        Ship[] probes;
+        int probe;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            board = BoardFixtures.board(stage, storage);
+            // Все возможные корабли по очереди: и допустимые, и задевающие флот
+            probes = new Ship[PlacementTable.count()];
+            for (int id = 0; id < probes.length; id++) {
+                probes[id] = BoardFixtures.ship(id);
+            }
+        }
+
+        Ship nextProbe() {
+            Ship ship = probes[probe];
+            probe = probe + 1 == probes.length ? 0 : probe + 1;
+            return ship;
+        }
+    }
+
+    /**
+     * Последний корабль флота и BATCH полей с девятью уже стоящими. Установка корабля портит поле,
+     * поэтому поля одноразовые: они готовятся пачкой на BATCH операций, чтобы подготовка и замер
+     * времени на каждый вызов не заглушили операцию в десятки наносекунд.
+     */
+    @State(Scope.Thread)
+    public static class PlaceState {
+        @Param({"CELLS", "PACKED"})
+        public BoardStorage storage;
+
+        final GameBoard[] boards = new GameBoard[BATCH];
+        Ship last;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            int[] fleet = BoardFixtures.fleet(BoardFixtures.SEED);
+            for (int b = 0; b < BATCH; b++) {
+                GameBoard board = new GameBoard(storage);
+                for (int i = 0; i < fleet.length - 1; i++) {
+                    board.placeShip(BoardFixtures.ship(fleet[i]));
+                }
+                boards[b] = board;
+            }
+            last = BoardFixtures.ship(fleet[fleet.length - 1]);
+        }
+    }
+
+    /**
+     * BATCH игр, в которых поле ИИ доведено до нужной стадии, и свободная клетка для выстрела игрока.
+     * Поле стадии строится ИИ один раз, игры пачки получают его копии.
+     */
+    @State(Scope.Thread)
+    public static class MoveState {
+        @Param({"CELLS", "PACKED"})
+        public BoardStorage storage;
+
+        @Param({"EMPTY", "MID", "ENDGAME"})
+        public BoardFixtures.Stage stage;
+
+        GameBoard template;
+        final Game[] games = new Game[BATCH];
+        int[] target;
+
+        @Setup(Level.Trial)
+        public void buildTemplate() {
+            template = BoardFixtures.board(stage, storage);
+            target = BoardFixtures.freeCell(template);
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            for (int b = 0; b < BATCH; b++) {
+                Game game = new Game(storage);
+                game.setAiBoard(BoardFixtures.copy(template, storage));
+                games[b] = game;
+            }
+        }
+    }
+
+    @Benchmark
+    public GameBoard construct(StorageState state) {
+        return new GameBoard(state.storage);
+    }
+
+    @Benchmark
+    public boolean isValidShipPlacement(PositionState state) {
+        return state.board.isValidShipPlacement(state.nextProbe());
+    }
+
+    @Benchmark
+    public boolean areAllShipsSunk(PositionState state) {
+        return state.board.areAllShipsSunk();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void placeShip(PlaceState state, Blackhole blackhole) {
+        for (GameBoard board : state.boards) {
+            blackhole.consume(board.placeShip(state.last));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void gameMakeMove(MoveState state, Blackhole blackhole) {
+        for (Game game : state.games) {
+            blackhole.consume(game.makeMove(state.target[0], state.target[1], true));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ai;
+
+import com.example.model.BoardEngine;
+
+/**
+ * Двоичный формат состояния ИИ для колонки games.ai_state:
+ * <pre>
+ * [версия][число выстрелов][по байту на выстрел: клетка | попадание << 7][13 байт маски потоплений]
+ * </pre>
+ * Хранятся только собственные выстрелы ИИ и их результаты — стратегия и поля охоты
+ * восстанавливаются повторением выстрелов через updateStrategy, так что партия занимает не больше 115 байт.
+ */
+public final class AiStateCodec {
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 2;
+    private static final int SUNK_SIZE = (BoardEngine.CELLS + 7) / 8;
+
+    private AiStateCodec() {
+    }
+
+    public static byte[] encode(BattleshipAI ai) {
+        int shotCount = ai.getShotCount();
+        byte[] data = new byte[HEADER_SIZE + shotCount + SUNK_SIZE];
+        data[0] = VERSION;
+        data[1] = (byte) shotCount;
+        int sunkOffset = HEADER_SIZE + shotCount;
+        for (int i = 0; i < shotCount; i++) {
+            int shot = ai.getShot(i);
+            int cell = shot & 0x7F;
+            data[HEADER_SIZE + i] = (byte) (shot & 0xFF);
+            if ((shot & 0x100) != 0) {
+                data[sunkOffset + (cell >>> 3)] |= (byte) (1 << (cell & 7));
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Повторяет сохранённые выстрелы на только что созданном ИИ.
+     */
+    public static BattleshipAI restore(BattleshipAI ai, byte[] data) {
+        if (data == null || data.length == 0) {
+            return ai;
+        }
+        if (data[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported AI state version: " + data[0]);
+        }
+
+        int shotCount = data[1] & 0xFF;
+        int sunkOffset = HEADER_SIZE + shotCount;
+        for (int i = 0; i < shotCount; i++) {
+            int cell = data[HEADER_SIZE + i] & 0x7F;
+            boolean hit = (data[HEADER_SIZE + i] & 0x80) != 0;
+            boolean sunk = (data[sunkOffset + (cell >>> 3)] & (1 << (cell & 7))) != 0;
+            ai.updateStrategy(cell / BoardEngine.SIZE, cell % BoardEngine.SIZE, hit, sunk);
+        }
+        return ai;
+    }
+}
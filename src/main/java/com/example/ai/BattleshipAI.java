@@ -1,13 +1,16 @@
 package com.example.ai;
 
+import com.example.model.BoardEngine;
 import com.example.model.Cell;
 import com.example.model.GameBoard;
 import com.example.model.Difficulty;
+import com.example.model.PlacementTable;
 import com.example.model.Ship;
 
 import java.util.Random;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 public class BattleshipAI {
     private final Random random;
@@ -18,9 +21,19 @@ public class BattleshipAI {
     private int lastHitX = -1;
     private int lastHitY = -1;
     private boolean isHunting = true;
+    // Для HARD и EXPERT — отдельная стратегия выбора выстрела, для остальных уровней null
+    private final TargetingStrategy targeting;
+    // Результаты собственных выстрелов по порядку: клетка | попадание << 7 | потопление << 8.
+    // Из них AiStateCodec восстанавливает всё остальное состояние
+    private final short[] shots = new short[BoardEngine.CELLS];
+    private int shotCount;
     
     public BattleshipAI(Difficulty difficulty) {
-        this.random = new Random();
+        this(difficulty, new Random(), MonteCarloTargeting.Settings.defaults(), ForkJoinPool.commonPool());
+    }
+    
+    public BattleshipAI(Difficulty difficulty, Random random, MonteCarloTargeting.Settings monteCarlo, ForkJoinPool pool) {
+        this.random = random;
         this.difficulty = difficulty;
         this.lastHits = new ArrayList<>();
         this.shipsToPlace = new ArrayList<>();
@@ -31,23 +44,32 @@ public class BattleshipAI {
                 shipsToPlace.add(new Ship(0, 0, true, size));
             }
         }
+        this.targeting = difficulty == null ? null : switch (difficulty) {
+            case HARD -> new ProbabilityDensityTargeting(random);
+            case EXPERT -> new MonteCarloTargeting(random, monteCarlo, pool);
+            default -> null;
+        };
     }
     
     public void placeShips(GameBoard board) {
-        for (Ship ship : shipsToPlace) {
-            boolean placed = false;
-            while (!placed) {
-                int x = random.nextInt(10);
-                int y = random.nextInt(10);
-                boolean horizontal = random.nextBoolean();
-                
-                ship = new Ship(x, y, horizontal, ship.getSize());
-                placed = board.placeShip(ship);
-            }
+        int[] placements = new int[shipsToPlace.size()];
+        int[] fleet = new int[shipsToPlace.size()];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = shipsToPlace.get(i).getSize();
+        }
+        FleetGenerator.generate(fleet, random, placements);
+        
+        for (int id : placements) {
+            board.placeShip(new Ship(PlacementTable.startX(id), PlacementTable.startY(id),
+                    PlacementTable.isHorizontal(id), PlacementTable.size(id)));
         }
     }
     
     public int[] makeMove(GameBoard board) {
+        if (targeting != null) {
+            int cell = targeting.nextShot(board);
+            return new int[]{cell / BoardEngine.SIZE, cell % BoardEngine.SIZE};
+        }
         if (isHunting) {
             return makeHuntingMove(board);
         } else {
@@ -88,19 +110,21 @@ public class BattleshipAI {
     }
     
     private boolean isValidMove(GameBoard board, int x, int y) {
-        if (x < 0 || x >= 10 || y < 0 || y >= 10) {
-            return false;
-        }
-        
-        Cell cell = board.getCells().stream()
-                .filter(c -> c.getX() == x && c.getY() == y)
-                .findFirst()
-                .orElse(null);
-                
-        return cell != null && (cell.getState() == Cell.CellState.EMPTY || cell.getState() == Cell.CellState.SHIP);
+        return board.canShoot(x, y);
+    }
+    
+    public Difficulty getDifficulty() {
+        return difficulty;
     }
     
     public void updateStrategy(int x, int y, boolean hit, boolean sunk) {
+        if (BoardEngine.isInside(x, y) && shotCount < shots.length) {
+            shots[shotCount++] = (short) (BoardEngine.index(x, y) | (hit ? 0x80 : 0) | (sunk ? 0x100 : 0));
+        }
+        if (targeting != null) {
+            targeting.onShotResult(x, y, hit, sunk);
+        }
+        
         if (hit) {
             lastHitX = x;
             lastHitY = y;
@@ -111,4 +135,12 @@ public class BattleshipAI {
             isHunting = true;
         }
     }
-} 
\ No newline at end of file
+    
+    int getShotCount() {
+        return shotCount;
+    }
+    
+    int getShot(int i) {
+        return shots[i];
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ai;
+
+import com.example.model.PlacementTable;
+
+import java.util.Random;
+
+/**
+ * Случайная расстановка флота через пересечение масок PlacementTable с перебором с возвратом.
+ * Для каждого корабля кандидаты просматриваются по кругу со случайной позиции и случайным шагом,
+ * и берётся первый, чьё тело не задевает ореолы уже поставленных кораблей.
+ */
+public final class FleetGenerator {
+    // 1x4, 2x3, 3x2, 4x1 — большие корабли ставятся первыми
+    public static final int[] STANDARD_FLEET = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+    // Шаги обхода взаимно просты с числом расстановок любого размера (100, 140, 160, 180)
+    private static final int[] STRIDES = {11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47, 53};
+
+    private FleetGenerator() {
+    }
+
+    /**
+     * Заполняет placements номерами расстановок из PlacementTable для кораблей fleet.
+     *
+     * @return false, если флот не помещается на поле
+     */
+    public static boolean generate(int[] fleet, Random random, int[] placements) {
+        return place(fleet, 0, 0L, 0L, random, placements);
+    }
+
+    private static boolean place(int[] fleet, int ship, long haloLo, long haloHi, Random random, int[] placements) {
+        if (ship == fleet.length) {
+            return true;
+        }
+
+        int[] candidates = PlacementTable.ofSize(fleet[ship]);
+        int offset = random.nextInt(candidates.length);
+        int stride = STRIDES[random.nextInt(STRIDES.length)];
+        for (int i = 0; i < candidates.length; i++) {
+            int id = candidates[(offset + i * stride) % candidates.length];
+            if ((PlacementTable.bodyLo(id) & haloLo) != 0 || (PlacementTable.bodyHi(id) & haloHi) != 0) {
+                continue;
+            }
+            placements[ship] = id;
+            if (place(fleet, ship + 1, haloLo | PlacementTable.haloLo(id), haloHi | PlacementTable.haloHi(id), random, placements)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
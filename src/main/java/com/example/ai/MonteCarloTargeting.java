@@ -0,0 +1,295 @@
+package com.example.ai;
+
+import com.example.model.BoardEngine;
+import com.example.model.GameBoard;
+import com.example.model.PlacementTable;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Стратегия для уровня EXPERT: на каждый ход генерируется много случайных расстановок
+ * оставшегося флота, согласованных со всеми известными попаданиями, промахами и
+ * потопленными кораблями, и выстрел делается в клетку, занятую чаще всего.
+ * Выборка делится на пачки и считается в ForkJoinPool; время хода ограничено бюджетом.
+ * Сведения о поле ведёт ProbabilityDensityTargeting, она же отвечает, если ни одна расстановка не подошла.
+ */
+public class MonteCarloTargeting implements TargetingStrategy {
+    private static final int SIZE = BoardEngine.SIZE;
+    private static final int CELLS = BoardEngine.CELLS;
+    private static final int MAX_SHIP_SIZE = PlacementTable.MAX_SHIP_SIZE;
+    private static final int CHUNK_SIZE = 256;
+    private static final int PLACEMENT_TRIES = 32;
+
+    /**
+     * @param samples  сколько расстановок генерировать на ход
+     * @param budget   предельное время хода; в детерминированном режиме не применяется
+     * @param seed     если задан, выборка детерминирована и не зависит от числа потоков
+     */
+    public record Settings(int samples, Duration budget, Long seed) {
+        public static Settings defaults() {
+            return new Settings(20_000, Duration.ofMillis(50), null);
+        }
+
+        public boolean isDeterministic() {
+            return seed != null;
+        }
+    }
+
+    private final ProbabilityDensityTargeting density;
+    private final Random random;
+    private final Settings settings;
+    private final ForkJoinPool pool;
+    private int moveNumber;
+
+    public MonteCarloTargeting(Random random, Settings settings, ForkJoinPool pool) {
+        this.density = new ProbabilityDensityTargeting(random);
+        this.random = random;
+        this.settings = settings;
+        this.pool = pool;
+    }
+
+    @Override
+    public int nextShot(GameBoard board) {
+        Snapshot snapshot = new Snapshot(density.knowledge(), density.remaining());
+        long deadline = settings.isDeterministic() ? Long.MAX_VALUE : System.nanoTime() + settings.budget().toNanos();
+        long seed = settings.isDeterministic()
+                ? mix(settings.seed(), moveNumber)
+                : random.nextLong();
+        moveNumber++;
+
+        int chunks = Math.max(1, (settings.samples() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        Tally tally = pool.invoke(new SampleTask(snapshot, seed, deadline, 0, chunks));
+        if (tally.accepted == 0) {
+            return density.nextShot(board);
+        }
+
+        byte[] knowledge = density.knowledge();
+        int best = -1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (knowledge[cell] == ProbabilityDensityTargeting.UNKNOWN
+                    && board.canShoot(cell / SIZE, cell % SIZE)
+                    && (best < 0 || tally.counts[cell] > tally.counts[best])) {
+                best = cell;
+            }
+        }
+        return best >= 0 ? best : density.nextShot(board);
+    }
+
+    @Override
+    public void onShotResult(int x, int y, boolean hit, boolean sunk) {
+        density.onShotResult(x, y, hit, sunk);
+    }
+
+    private static long mix(long seed, long value) {
+        long z = seed + value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Неизменяемые на время хода данные, общие для всех пачек выборки.
+     */
+    private static final class Snapshot {
+        private final int[] remaining = new int[MAX_SHIP_SIZE + 1];
+        private final boolean[] open = new boolean[PlacementTable.count()];
+        private final int[][] openBySize = new int[MAX_SHIP_SIZE + 1][];
+        private long hitLo;
+        private long hitHi;
+
+        private Snapshot(byte[] knowledge, int[] remaining) {
+            System.arraycopy(remaining, 0, this.remaining, 0, this.remaining.length);
+
+            long closedLo = 0;
+            long closedHi = 0;
+            for (int cell = 0; cell < CELLS; cell++) {
+                byte state = knowledge[cell];
+                if (state == ProbabilityDensityTargeting.HIT) {
+                    if (cell < 64) {
+                        hitLo |= 1L << cell;
+                    } else {
+                        hitHi |= 1L << (cell - 64);
+                    }
+                } else if (state != ProbabilityDensityTargeting.UNKNOWN) {
+                    if (cell < 64) {
+                        closedLo |= 1L << cell;
+                    } else {
+                        closedHi |= 1L << (cell - 64);
+                    }
+                }
+            }
+
+            int[] counts = new int[MAX_SHIP_SIZE + 1];
+            for (int id = 0; id < PlacementTable.count(); id++) {
+                // Корабль не может стоять на закрытых клетках и не может целиком состоять из
+                // попаданий: такой корабль уже был бы потоплен
+                open[id] = (PlacementTable.bodyLo(id) & closedLo) == 0 && (PlacementTable.bodyHi(id) & closedHi) == 0
+                        && ((PlacementTable.bodyLo(id) & ~hitLo) != 0 || (PlacementTable.bodyHi(id) & ~hitHi) != 0);
+                if (open[id]) {
+                    counts[PlacementTable.size(id)]++;
+                }
+            }
+            for (int size = 1; size <= MAX_SHIP_SIZE; size++) {
+                openBySize[size] = new int[counts[size]];
+                counts[size] = 0;
+            }
+            for (int id = 0; id < PlacementTable.count(); id++) {
+                if (open[id]) {
+                    int size = PlacementTable.size(id);
+                    openBySize[size][counts[size]++] = id;
+                }
+            }
+        }
+    }
+
+    private static final class Tally {
+        private final int[] counts = new int[CELLS];
+        private int accepted;
+
+        private Tally merge(Tally other) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                counts[cell] += other.counts[cell];
+            }
+            accepted += other.accepted;
+            return this;
+        }
+    }
+
+    // Задача живёт только внутри пула и не сериализуется
+    @SuppressWarnings("serial")
+    private final class SampleTask extends RecursiveTask<Tally> {
+        private final Snapshot snapshot;
+        private final long seed;
+        private final long deadline;
+        private final int fromChunk;
+        private final int toChunk;
+
+        private SampleTask(Snapshot snapshot, long seed, long deadline, int fromChunk, int toChunk) {
+            this.snapshot = snapshot;
+            this.seed = seed;
+            this.deadline = deadline;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (toChunk - fromChunk == 1) {
+                return sampleChunk();
+            }
+            int middle = (fromChunk + toChunk) >>> 1;
+            SampleTask left = new SampleTask(snapshot, seed, deadline, fromChunk, middle);
+            left.fork();
+            Tally right = new SampleTask(snapshot, seed, deadline, middle, toChunk).compute();
+            return left.join().merge(right);
+        }
+
+        private Tally sampleChunk() {
+            Tally tally = new Tally();
+            // Своё зерно у каждой пачки — результат не зависит от того, какой поток её считал
+            SplittableRandom rnd = new SplittableRandom(mix(seed, fromChunk));
+            int[] left = new int[MAX_SHIP_SIZE + 1];
+            int samples = Math.min(CHUNK_SIZE, settings.samples() - fromChunk * CHUNK_SIZE);
+            for (int i = 0; i < samples; i++) {
+                if ((i & 15) == 0 && System.nanoTime() > deadline) {
+                    break;
+                }
+                if (sample(rnd, left, tally.counts)) {
+                    tally.accepted++;
+                }
+            }
+            return tally;
+        }
+
+        private boolean sample(SplittableRandom rnd, int[] left, int[] counts) {
+            System.arraycopy(snapshot.remaining, 0, left, 0, left.length);
+            long haloLo = 0;
+            long haloHi = 0;
+            long bodyLo = 0;
+            long bodyHi = 0;
+
+            // Сначала корабли, закрывающие каждое ещё не объяснённое попадание
+            long needLo = snapshot.hitLo;
+            long needHi = snapshot.hitHi;
+            while ((needLo | needHi) != 0) {
+                int cell = needLo != 0 ? Long.numberOfTrailingZeros(needLo) : 64 + Long.numberOfTrailingZeros(needHi);
+                int id = pickCovering(rnd, cell, left, haloLo, haloHi);
+                if (id < 0) {
+                    return false;
+                }
+                left[PlacementTable.size(id)]--;
+                bodyLo |= PlacementTable.bodyLo(id);
+                bodyHi |= PlacementTable.bodyHi(id);
+                haloLo |= PlacementTable.haloLo(id);
+                haloHi |= PlacementTable.haloHi(id);
+                needLo &= ~bodyLo;
+                needHi &= ~bodyHi;
+            }
+
+            // Затем остальной флот, начиная с больших кораблей
+            for (int size = MAX_SHIP_SIZE; size >= 1; size--) {
+                int[] candidates = snapshot.openBySize[size];
+                for (int n = left[size]; n > 0; n--) {
+                    int id = pickFree(rnd, candidates, haloLo, haloHi);
+                    if (id < 0) {
+                        return false;
+                    }
+                    bodyLo |= PlacementTable.bodyLo(id);
+                    bodyHi |= PlacementTable.bodyHi(id);
+                    haloLo |= PlacementTable.haloLo(id);
+                    haloHi |= PlacementTable.haloHi(id);
+                }
+            }
+
+            for (long bits = bodyLo; bits != 0; bits &= bits - 1) {
+                counts[Long.numberOfTrailingZeros(bits)]++;
+            }
+            for (long bits = bodyHi; bits != 0; bits &= bits - 1) {
+                counts[64 + Long.numberOfTrailingZeros(bits)]++;
+            }
+            return true;
+        }
+
+        private int pickCovering(SplittableRandom rnd, int cell, int[] left, long haloLo, long haloHi) {
+            int ships = 0;
+            for (int size = 1; size <= MAX_SHIP_SIZE; size++) {
+                ships += left[size];
+            }
+            if (ships == 0) {
+                return -1;
+            }
+            for (int attempt = 0; attempt < PLACEMENT_TRIES; attempt++) {
+                // Размер выбирается пропорционально числу оставшихся кораблей этого размера
+                int pick = rnd.nextInt(ships);
+                int size = 1;
+                while (pick >= left[size]) {
+                    pick -= left[size];
+                    size++;
+                }
+                int[] covering = PlacementTable.covering(cell, size);
+                int id = covering[rnd.nextInt(covering.length)];
+                if (snapshot.open[id] && (PlacementTable.bodyLo(id) & haloLo) == 0 && (PlacementTable.bodyHi(id) & haloHi) == 0) {
+                    return id;
+                }
+            }
+            return -1;
+        }
+
+        private int pickFree(SplittableRandom rnd, int[] candidates, long haloLo, long haloHi) {
+            if (candidates.length == 0) {
+                return -1;
+            }
+            for (int attempt = 0; attempt < PLACEMENT_TRIES; attempt++) {
+                int id = candidates[rnd.nextInt(candidates.length)];
+                if ((PlacementTable.bodyLo(id) & haloLo) == 0 && (PlacementTable.bodyHi(id) & haloHi) == 0) {
+                    return id;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.ai;
+
+import com.example.model.BoardEngine;
+import com.example.model.GameBoard;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Стратегия для сложного уровня: для каждой клетки хранится, сколькими способами в неё
+ * можно поставить ещё не потопленные корабли (карта плотности). Карта обновляется
+ * инкрементально после каждого выстрела: убираются только расстановки через закрывшиеся клетки.
+ * Пока есть раненый корабль, выбор идёт по расстановкам, проходящим через попадания.
+ * Все массивы выделяются один раз, ход не создаёт объектов.
+ */
+public class ProbabilityDensityTargeting implements TargetingStrategy {
+    private static final int SIZE = BoardEngine.SIZE;
+    private static final int CELLS = BoardEngine.CELLS;
+    private static final int MAX_SHIP_SIZE = 4;
+
+    // Что известно о клетке поля противника
+    static final byte UNKNOWN = 0;
+    static final byte MISS = 1;
+    static final byte HIT = 2;
+    static final byte SUNK = 3;
+    // Вода рядом с попаданием или потопленным кораблём
+    static final byte BLOCKED = 4;
+
+    // Множитель для расстановок, проходящих через попадания
+    private static final int HIT_WEIGHT = 64;
+
+    private final Random random;
+    private final byte[] knowledge = new byte[CELLS];
+    private final int[] remaining = new int[MAX_SHIP_SIZE + 1];
+    private final int[] density = new int[CELLS];
+    private final int[] scores = new int[CELLS];
+    private final int[] shipCells = new int[MAX_SHIP_SIZE];
+    private int openHits;
+
+    public ProbabilityDensityTargeting(Random random) {
+        this.random = random;
+        // 1x4, 2x3, 3x2, 4x1
+        for (int size = 1; size <= MAX_SHIP_SIZE; size++) {
+            remaining[size] = MAX_SHIP_SIZE + 1 - size;
+        }
+        rebuildDensity();
+    }
+
+    @Override
+    public int nextShot(GameBoard board) {
+        int[] weights = density;
+        if (openHits > 0) {
+            computeTargetScores();
+            weights = scores;
+        }
+
+        int best = -1;
+        int bestScore = -1;
+        int ties = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (knowledge[cell] != UNKNOWN || !board.canShoot(cell / SIZE, cell % SIZE)) {
+                continue;
+            }
+            int score = weights[cell];
+            if (score > bestScore) {
+                best = cell;
+                bestScore = score;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        if (best >= 0) {
+            return best;
+        }
+
+        // Наши сведения разошлись с полем — стреляем в любую доступную клетку
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (board.canShoot(cell / SIZE, cell % SIZE)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void onShotResult(int x, int y, boolean hit, boolean sunk) {
+        if (!BoardEngine.isInside(x, y)) {
+            return;
+        }
+        int cell = BoardEngine.index(x, y);
+        if (!hit) {
+            close(cell, MISS);
+            return;
+        }
+
+        if (knowledge[cell] == UNKNOWN) {
+            knowledge[cell] = HIT;
+            openHits++;
+        }
+        // По диагонали от попадания корабля быть не может
+        closeIfUnknown(x - 1, y - 1);
+        closeIfUnknown(x - 1, y + 1);
+        closeIfUnknown(x + 1, y - 1);
+        closeIfUnknown(x + 1, y + 1);
+
+        if (sunk) {
+            sink(x, y);
+        }
+    }
+
+    // Для стратегий, которые строятся поверх этой и используют её сведения о поле
+    byte[] knowledge() {
+        return knowledge;
+    }
+
+    int[] remaining() {
+        return remaining;
+    }
+
+    private void sink(int x, int y) {
+        int count = 0;
+        shipCells[count++] = BoardEngine.index(x, y);
+        count = collectHits(x, y, 1, 0, count);
+        count = collectHits(x, y, -1, 0, count);
+        count = collectHits(x, y, 0, 1, count);
+        count = collectHits(x, y, 0, -1, count);
+
+        for (int i = 0; i < count; i++) {
+            int cell = shipCells[i];
+            openHits--;
+            close(cell, SUNK);
+        }
+        for (int i = 0; i < count; i++) {
+            int cx = shipCells[i] / SIZE;
+            int cy = shipCells[i] % SIZE;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    closeIfUnknown(cx + dx, cy + dy);
+                }
+            }
+        }
+
+        if (remaining[count] > 0) {
+            remaining[count]--;
+            // Один корабль этого размера больше не участвует ни в одной расстановке
+            addAllPlacements(count, -1);
+        }
+    }
+
+    private int collectHits(int x, int y, int dx, int dy, int count) {
+        for (int cx = x + dx, cy = y + dy; BoardEngine.isInside(cx, cy) && count < MAX_SHIP_SIZE; cx += dx, cy += dy) {
+            int cell = BoardEngine.index(cx, cy);
+            if (knowledge[cell] != HIT) {
+                break;
+            }
+            shipCells[count++] = cell;
+        }
+        return count;
+    }
+
+    private void closeIfUnknown(int x, int y) {
+        if (BoardEngine.isInside(x, y) && knowledge[BoardEngine.index(x, y)] == UNKNOWN) {
+            close(BoardEngine.index(x, y), BLOCKED);
+        }
+    }
+
+    /**
+     * Закрывает клетку для кораблей: из карты вычитаются все расстановки, которые через неё проходили.
+     */
+    private void close(int cell, byte state) {
+        if (!isOpen(cell)) {
+            knowledge[cell] = state;
+            return;
+        }
+
+        int x = cell / SIZE;
+        int y = cell % SIZE;
+        for (int size = 1; size <= MAX_SHIP_SIZE; size++) {
+            int weight = remaining[size];
+            if (weight == 0) {
+                continue;
+            }
+            for (int sx = Math.max(0, x - size + 1); sx <= x && sx + size <= SIZE; sx++) {
+                int start = BoardEngine.index(sx, y);
+                if (isOpenPlacement(start, SIZE, size)) {
+                    addPlacement(start, SIZE, size, -weight);
+                }
+            }
+            if (size == 1) {
+                continue;
+            }
+            for (int sy = Math.max(0, y - size + 1); sy <= y && sy + size <= SIZE; sy++) {
+                int start = BoardEngine.index(x, sy);
+                if (isOpenPlacement(start, 1, size)) {
+                    addPlacement(start, 1, size, -weight);
+                }
+            }
+        }
+        knowledge[cell] = state;
+    }
+
+    private void rebuildDensity() {
+        Arrays.fill(density, 0);
+        for (int size = 1; size <= MAX_SHIP_SIZE; size++) {
+            addAllPlacements(size, remaining[size]);
+        }
+    }
+
+    private void addAllPlacements(int size, int weight) {
+        if (weight == 0) {
+            return;
+        }
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                int start = BoardEngine.index(x, y);
+                if (x + size <= SIZE && isOpenPlacement(start, SIZE, size)) {
+                    addPlacement(start, SIZE, size, weight);
+                }
+                if (size > 1 && y + size <= SIZE && isOpenPlacement(start, 1, size)) {
+                    addPlacement(start, 1, size, weight);
+                }
+            }
+        }
+    }
+
+    private void computeTargetScores() {
+        Arrays.fill(scores, 0);
+        for (int size = 1; size <= MAX_SHIP_SIZE; size++) {
+            if (remaining[size] == 0) {
+                continue;
+            }
+            for (int x = 0; x < SIZE; x++) {
+                for (int y = 0; y < SIZE; y++) {
+                    int start = BoardEngine.index(x, y);
+                    if (x + size <= SIZE) {
+                        scoreTargetPlacement(start, SIZE, size);
+                    }
+                    if (size > 1 && y + size <= SIZE) {
+                        scoreTargetPlacement(start, 1, size);
+                    }
+                }
+            }
+        }
+    }
+
+    private void scoreTargetPlacement(int start, int step, int size) {
+        int hits = 0;
+        for (int i = 0, cell = start; i < size; i++, cell += step) {
+            byte state = knowledge[cell];
+            if (state == HIT) {
+                hits++;
+            } else if (state != UNKNOWN) {
+                return;
+            }
+        }
+        if (hits == 0) {
+            return;
+        }
+        int weight = remaining[size] * hits * HIT_WEIGHT;
+        for (int i = 0, cell = start; i < size; i++, cell += step) {
+            if (knowledge[cell] == UNKNOWN) {
+                scores[cell] += weight;
+            }
+        }
+    }
+
+    private boolean isOpenPlacement(int start, int step, int size) {
+        for (int i = 0, cell = start; i < size; i++, cell += step) {
+            if (!isOpen(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addPlacement(int start, int step, int size, int delta) {
+        for (int i = 0, cell = start; i < size; i++, cell += step) {
+            density[cell] += delta;
+        }
+    }
+
+    private boolean isOpen(int cell) {
+        return knowledge[cell] == UNKNOWN || knowledge[cell] == HIT;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.ai;
+
+import com.example.metrics.LatencyHistogram;
+import com.example.model.BoardEngine;
+import com.example.model.BoardStorage;
+import com.example.model.Difficulty;
+import com.example.model.GameBoard;
+import com.example.model.ShotResult;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Партии ИИ против ИИ в памяти, без Spring и базы — для настройки и регрессионной проверки стратегий.
+ * Каждая партия получает своё зерно из общего, поэтому результат прогона воспроизводим
+ * при любом числе потоков. Первым ходит то A, то B по чётности номера партии.
+ * <p>
+ * Запуск: {@code ./gradlew selfPlay --args="--a=HARD --b=EXPERT --games=100000"}.
+ * Параметры: --a, --b (уровень или LEGACY), --games, --seed, --threads, --mc-samples.
+ */
+public final class SelfPlaySimulator {
+    private static final int CHUNK_SIZE = 256;
+    private static final int MAX_SHOTS = 2 * BoardEngine.CELLS;
+
+    /**
+     * @param a         уровень первого ИИ, null — базовая стратегия охоты
+     * @param b         уровень второго ИИ
+     * @param mcSamples расстановок на ход для EXPERT; в симуляции выборка всегда детерминирована
+     */
+    public record Config(Difficulty a, Difficulty b, int games, long seed, int threads, int mcSamples) {
+        public static Config defaults() {
+            return new Config(Difficulty.HARD, Difficulty.HARD, 10_000, 1L,
+                    Runtime.getRuntime().availableProcessors(), 2_000);
+        }
+    }
+
+    public static final class Report {
+        private long winsA;
+        private long winsB;
+        private long winningShotsA;
+        private long winningShotsB;
+        private final LatencyHistogram latencyA = new LatencyHistogram();
+        private final LatencyHistogram latencyB = new LatencyHistogram();
+
+        public long getWinsA() {
+            return winsA;
+        }
+
+        public long getWinsB() {
+            return winsB;
+        }
+
+        public double getMeanShotsToWinA() {
+            return winsA == 0 ? 0 : (double) winningShotsA / winsA;
+        }
+
+        public double getMeanShotsToWinB() {
+            return winsB == 0 ? 0 : (double) winningShotsB / winsB;
+        }
+
+        public LatencyHistogram getLatencyA() {
+            return latencyA;
+        }
+
+        public LatencyHistogram getLatencyB() {
+            return latencyB;
+        }
+
+        private Report merge(Report other) {
+            winsA += other.winsA;
+            winsB += other.winsB;
+            winningShotsA += other.winningShotsA;
+            winningShotsB += other.winningShotsB;
+            latencyA.add(other.latencyA);
+            latencyB.add(other.latencyB);
+            return this;
+        }
+    }
+
+    private SelfPlaySimulator() {
+    }
+
+    public static Report run(Config config) {
+        int chunks = (config.games() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, config.threads()));
+        try {
+            return pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> runChunk(config, chunk, pool))
+                    .reduce(Report::merge)
+                    .orElseGet(Report::new)).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Report runChunk(Config config, int chunk, ForkJoinPool pool) {
+        Report report = new Report();
+        int to = Math.min(config.games(), (chunk + 1) * CHUNK_SIZE);
+        for (int game = chunk * CHUNK_SIZE; game < to; game++) {
+            playGame(config, game, pool, report);
+        }
+        return report;
+    }
+
+    private static void playGame(Config config, int game, ForkJoinPool pool, Report report) {
+        long seed = mix(config.seed(), game);
+        BattleshipAI a = newAi(config.a(), mix(seed, 1), config.mcSamples(), pool);
+        BattleshipAI b = newAi(config.b(), mix(seed, 2), config.mcSamples(), pool);
+        GameBoard boardA = new GameBoard(BoardStorage.PACKED);
+        GameBoard boardB = new GameBoard(BoardStorage.PACKED);
+        a.placeShips(boardA);
+        b.placeShips(boardB);
+
+        int shotsA = 0;
+        int shotsB = 0;
+        boolean turnA = (game & 1) == 0;
+        while (shotsA + shotsB < MAX_SHOTS) {
+            if (turnA) {
+                shotsA++;
+                if (shoot(a, boardB, report.latencyA)) {
+                    report.winsA++;
+                    report.winningShotsA += shotsA;
+                    return;
+                }
+            } else {
+                shotsB++;
+                if (shoot(b, boardA, report.latencyB)) {
+                    report.winsB++;
+                    report.winningShotsB += shotsB;
+                    return;
+                }
+            }
+            turnA = !turnA;
+        }
+        throw new IllegalStateException("Game " + game + " did not finish in " + MAX_SHOTS + " shots");
+    }
+
+    // Ход одного ИИ; true, если после него весь флот противника потоплен
+    private static boolean shoot(BattleshipAI ai, GameBoard target, LatencyHistogram latency) {
+        long start = System.nanoTime();
+        int[] move = ai.makeMove(target);
+        latency.record(System.nanoTime() - start);
+
+        ShotResult result = target.shoot(move[0], move[1]);
+        if (result == ShotResult.INVALID) {
+            throw new IllegalStateException("AI made an invalid move: " + move[0] + "," + move[1]);
+        }
+        ai.updateStrategy(move[0], move[1], result != ShotResult.MISS, result == ShotResult.SUNK);
+        return result == ShotResult.SUNK && target.areAllShipsSunk();
+    }
+
+    private static BattleshipAI newAi(Difficulty difficulty, long seed, int mcSamples, ForkJoinPool pool) {
+        MonteCarloTargeting.Settings settings = new MonteCarloTargeting.Settings(mcSamples, Duration.ZERO, seed);
+        return new BattleshipAI(difficulty, new Random(seed), settings, pool);
+    }
+
+    private static long mix(long seed, long value) {
+        long z = seed + value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static void main(String[] args) {
+        Config defaults = Config.defaults();
+        Difficulty a = defaults.a();
+        Difficulty b = defaults.b();
+        int games = defaults.games();
+        long seed = defaults.seed();
+        int threads = defaults.threads();
+        int mcSamples = defaults.mcSamples();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            switch (pair[0]) {
+                case "a" -> a = parseDifficulty(pair[1]);
+                case "b" -> b = parseDifficulty(pair[1]);
+                case "games" -> games = Integer.parseInt(pair[1]);
+                case "seed" -> seed = Long.parseLong(pair[1]);
+                case "threads" -> threads = Integer.parseInt(pair[1]);
+                case "mc-samples" -> mcSamples = Integer.parseInt(pair[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + pair[0]);
+            }
+        }
+
+        Config config = new Config(a, b, games, seed, threads, mcSamples);
+        long start = System.nanoTime();
+        Report report = run(config);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf(Locale.ROOT, "%d games in %.1f s (%.0f games/s), seed %d, %d threads%n",
+                games, seconds, games / seconds, seed, threads);
+        printSide("A", a, report.getWinsA(), games, report.getMeanShotsToWinA(), report.getLatencyA());
+        printSide("B", b, report.getWinsB(), games, report.getMeanShotsToWinB(), report.getLatencyB());
+    }
+
+    private static Difficulty parseDifficulty(String value) {
+        return "LEGACY".equalsIgnoreCase(value) ? null : Difficulty.valueOf(value.toUpperCase(Locale.ROOT));
+    }
+
+    private static void printSide(String side, Difficulty difficulty, long wins, int games, double meanShots,
+                                  LatencyHistogram latency) {
+        System.out.printf(Locale.ROOT,
+                "%s %-7s wins %6.2f%%  shots-to-win %5.1f  move latency us: mean %.1f p50 %.1f p90 %.1f p99 %.1f p99.9 %.1f max %.1f%n",
+                side, difficulty == null ? "LEGACY" : difficulty, 100.0 * wins / games, meanShots,
+                latency.getMean() / 1e3, latency.getPercentile(50) / 1e3, latency.getPercentile(90) / 1e3,
+                latency.getPercentile(99) / 1e3, latency.getPercentile(99.9) / 1e3, latency.getMax() / 1e3);
+    }
+}
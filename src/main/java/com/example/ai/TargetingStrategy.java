@@ -0,0 +1,15 @@
+package com.example.ai;
+
+import com.example.model.GameBoard;
+
+/**
+ * Выбор следующего выстрела. Клетки задаются индексом x * 10 + y, как в BoardEngine.
+ */
+public interface TargetingStrategy {
+    /**
+     * @return индекс клетки для выстрела или -1, если стрелять некуда
+     */
+    int nextShot(GameBoard board);
+
+    void onShotResult(int x, int y, boolean hit, boolean sunk);
+}
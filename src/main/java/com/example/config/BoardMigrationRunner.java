@@ -0,0 +1,33 @@
+package com.example.config;
+
+import com.example.service.BoardMigrationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "game.board.migrate-on-startup", havingValue = "true")
+public class BoardMigrationRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(BoardMigrationRunner.class);
+    
+    @Autowired
+    private BoardMigrationService boardMigrationService;
+    
+    @Value("${game.board.migration-batch-size:200}")
+    private int batchSize;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        int total = 0;
+        int migrated;
+        while ((migrated = boardMigrationService.migrateBatch(batchSize)) > 0) {
+            total += migrated;
+        }
+        log.info("Migrated {} game boards to packed storage", total);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.config;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.io.PrintStream;
+
+/**
+ * При game.export.output=- stdout занят записями выгрузки: баннер выключается, а всё, что приложение
+ * пишет в System.out, включая консольный лог, уходит в stderr. Срабатывает до настройки логирования.
+ * Настоящий stdout GameExportRunner берёт из STDOUT.
+ */
+public class ExportOutputPostProcessor implements EnvironmentPostProcessor {
+    static final PrintStream STDOUT = System.out;
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (GameExportRunner.STDOUT.equals(environment.getProperty("game.export.output"))) {
+            application.setBannerMode(Banner.Mode.OFF);
+            System.setOut(System.err);
+        }
+    }
+}
@@ -1,13 +1,33 @@
 package com.example.config;
 
+import com.example.ai.MonteCarloTargeting;
 import com.example.model.Lobby;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
 
 @Configuration
+@EnableScheduling
 public class GameConfig {
     @Bean
     public Lobby lobby() {
         return new Lobby();
     }
-} 
\ No newline at end of file
+    
+    // Потоки для выборки расстановок уровня EXPERT
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool aiPool(@Value("${game.ai.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+    
+    @Bean
+    public MonteCarloTargeting.Settings monteCarloSettings(
+            @Value("${game.ai.monte-carlo.samples:20000}") int samples,
+            @Value("${game.ai.monte-carlo.budget-ms:50}") long budgetMs) {
+        return new MonteCarloTargeting.Settings(samples, Duration.ofMillis(budgetMs), null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.config;
+
+import com.example.service.GameExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+/**
+ * Выгрузка игр из командной строки: при заданном game.export.output приложение выгружает законченные игры
+ * в файл (или в stdout для "-", тогда лог идёт в stderr, см. ExportOutputPostProcessor) и завершается. Например:
+ * <pre>
+ * java -jar sea-battle.jar --spring.main.web-application-type=none \
+ *     --game.export.output=games.ndjson --game.export.from=2024-01-01T00:00:00Z
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "game.export.output")
+public class GameExportRunner implements ApplicationRunner {
+    static final String STDOUT = "-";
+    
+    private static final Logger log = LoggerFactory.getLogger(GameExportRunner.class);
+    
+    @Autowired
+    private GameExportService gameExportService;
+    
+    @Autowired
+    private ApplicationContext context;
+    
+    @Value("${game.export.output}")
+    private String output;
+    
+    @Value("${game.export.format:NDJSON}")
+    private GameExportService.Format format;
+    
+    @Value("${game.export.from:}")
+    private String from;
+    
+    @Value("${game.export.to:}")
+    private String to;
+    
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        long exported;
+        boolean stdout = STDOUT.equals(output);
+        OutputStream out = new BufferedOutputStream(stdout ? ExportOutputPostProcessor.STDOUT : new FileOutputStream(output), 1 << 16);
+        try {
+            exported = gameExportService.export(parse(from), parse(to), format, out);
+            out.flush();
+        } finally {
+            if (!stdout) {
+                out.close();
+            }
+        }
+        log.info("Exported {} games to {}", exported, output);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+    
+    private static Instant parse(String value) {
+        return value.isBlank() ? null : Instant.parse(value.trim());
+    }
+}
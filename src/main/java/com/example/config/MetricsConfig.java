@@ -0,0 +1,25 @@
+package com.example.config;
+
+import com.example.metrics.MetricsRegistry;
+import com.example.service.AiSessionCache;
+import com.example.service.GameRegistry;
+import com.example.service.GameTimeouts;
+import com.example.service.LobbyIndex;
+import com.example.service.LobbyService;
+import com.example.service.Matchmaker;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    // Датчики читаются только при снятии метрик, на рабочие пути они не влияют
+    public MetricsConfig(MetricsRegistry metrics, GameRegistry gameRegistry, GameTimeouts gameTimeouts,
+                         LobbyIndex lobbyIndex, LobbyService lobbyService, Matchmaker matchmaker,
+                         AiSessionCache aiSessionCache) {
+        metrics.gauge("games.active", gameTimeouts::trackedGames);
+        metrics.gauge("games.loaded", gameRegistry::size);
+        metrics.gauge("lobby.open_games", lobbyIndex::openCount);
+        metrics.gauge("lobby.waiting_players", () -> lobbyService.getWaitingPlayers().size());
+        metrics.gauge("matchmaking.tickets", matchmaker::queueSize);
+        metrics.gauge("ai.sessions", aiSessionCache::size);
+    }
+}
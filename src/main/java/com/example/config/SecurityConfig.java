@@ -1,23 +1,56 @@
 package com.example.config;
 
+import com.example.service.SessionTokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        http.csrf().disable().authorizeHttpRequests()
-                .requestMatchers("*").permitAll()
-                .anyRequest().permitAll()
-                .and().headers().frameOptions().disable();
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, SessionTokenService sessionTokenService,
+                                                   @Value("${game.auth.require-token:false}") boolean requireToken,
+                                                   @Value("${game.auth.admins:}") Set<String> admins) throws Exception {
+        http.csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new TokenAuthenticationFilter(sessionTokenService, admins), UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeHttpRequests(requests -> {
+                    // Действия в игре и лобби выполняются от имени пользователя токена, поэтому токен нужен всегда
+                    requests.requestMatchers(HttpMethod.POST, "/api/game/**", "/api/lobby/**").authenticated()
+                            .requestMatchers(HttpMethod.DELETE, "/api/lobby/**").authenticated()
+                            .requestMatchers("/api/lobby/players/**").authenticated()
+                            // Счётчики и задержки сервера — не для анонимных клиентов
+                            .requestMatchers("/api/metrics/**").authenticated()
+                            // Выгрузка отдаёт все законченные партии всех игроков — только администраторам
+                            .requestMatchers("/api/export/**").hasRole("ADMIN");
+                    if (requireToken) {
+                        requests.requestMatchers("/api/game/**", "/api/lobby/**").authenticated();
+                    }
+                    requests.requestMatchers("*").permitAll()
+                            .anyRequest().permitAll();
+                })
+                .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
         return http.build();
     }
 
@@ -25,4 +58,20 @@ public class SecurityConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
-} 
\ No newline at end of file
+
+    // BCrypt нарочно медленный: считаем его в отдельном ограниченном пуле, чтобы поток входов
+    // не занял потоки, обслуживающие игры. Переполненная очередь отклоняет задачу — клиент получит 503
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService passwordHashingExecutor(@Value("${game.auth.hashing-threads:0}") int threads,
+                                                   @Value("${game.auth.hashing-queue-capacity:100}") int queueCapacity) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
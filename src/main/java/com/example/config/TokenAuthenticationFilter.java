@@ -0,0 +1,57 @@
+package com.example.config;
+
+import com.example.service.SessionTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Проверяет заголовок Authorization: Bearer &lt;токен&gt; и кладёт пользователя токена в SecurityContext.
+ * Запрос без заголовка проходит анонимно, с испорченным или истёкшим токеном — получает 401.
+ * Пользователи из списка администраторов получают роль ADMIN.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+    private static final List<GrantedAuthority> ADMIN = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    private final SessionTokenService sessionTokenService;
+    private final Set<String> admins;
+
+    public TokenAuthenticationFilter(SessionTokenService sessionTokenService, Set<String> admins) {
+        this.sessionTokenService = sessionTokenService;
+        this.admins = admins;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        SessionTokenService.SessionUser user = sessionTokenService.verify(header.substring(BEARER.length()).trim());
+        if (user == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired token");
+            return;
+        }
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        List<GrantedAuthority> authorities = admins.contains(user.username()) ? ADMIN : List.of();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(user, null, authorities));
+        SecurityContextHolder.setContext(context);
+        chain.doFilter(request, response);
+    }
+}
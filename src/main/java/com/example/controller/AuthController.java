@@ -1,11 +1,14 @@
 package com.example.controller;
 
-import com.example.model.User;
+import com.example.dto.AuthResponse;
+import com.example.dto.UsernameAvailability;
 import com.example.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -13,14 +16,17 @@ public class AuthController {
     private AuthService authService;
     
     @PostMapping("/register")
-    public ResponseEntity<User> register(@RequestParam String username, @RequestParam String password) {
-        User user = authService.register(username, password);
-        return ResponseEntity.ok(user);
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestParam String username, @RequestParam String password) {
+        return authService.register(username, password).thenApply(ResponseEntity::ok);
+    }
+    
+    @GetMapping("/username-available")
+    public ResponseEntity<UsernameAvailability> isUsernameAvailable(@RequestParam String username) {
+        return ResponseEntity.ok(new UsernameAvailability(username, authService.isUsernameAvailable(username)));
     }
     
     @PostMapping("/login")
-    public ResponseEntity<User> login(@RequestParam String username, @RequestParam String password) {
-        User user = authService.login(username, password);
-        return ResponseEntity.ok(user);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestParam String username, @RequestParam String password) {
+        return authService.login(username, password).thenApply(ResponseEntity::ok);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.controller;
+
+import com.example.service.GameExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+    private static final String NDJSON = "application/x-ndjson";
+    
+    @Autowired
+    private GameExportService gameExportService;
+    
+    // Законченные игры потоком прямо в ответ, без сборки списка в памяти; форматы описаны в GameExportService.
+    // Доступна только администраторам из game.auth.admins.
+    // Пример: /api/export/games?from=2024-01-01T00:00:00Z&format=BINARY
+    @GetMapping("/games")
+    public void exportGames(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "NDJSON") GameExportService.Format format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format == GameExportService.Format.BINARY
+                ? MediaType.APPLICATION_OCTET_STREAM_VALUE
+                : NDJSON);
+        gameExportService.export(from, to, format, response.getOutputStream());
+    }
+}
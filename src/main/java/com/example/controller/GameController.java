@@ -1,10 +1,27 @@
 package com.example.controller;
 
+import com.example.dto.FleetPlacementResponse;
+import com.example.dto.GameDelta;
+import com.example.dto.GameReplay;
+import com.example.dto.GameView;
+import com.example.dto.ShipPlacement;
 import com.example.model.Game;
+import com.example.service.GameArchiveService;
 import com.example.service.GameService;
+import com.example.service.GameEventBus;
+import com.example.service.LobbyService;
+import com.example.service.SessionTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/game")
@@ -12,10 +29,51 @@ public class GameController {
     @Autowired
     private GameService gameService;
     
+    @Autowired
+    private GameEventBus gameEventBus;
+    
+    @Autowired
+    private GameArchiveService gameArchiveService;
+    
+    @Autowired
+    private LobbyService lobbyService;
+    
+    // Действия в игре выполняются от имени пользователя токена, а не переданного в запросе игрока
     @PostMapping("/start")
-    public ResponseEntity<Game> startGame() {
-        Game game = gameService.createGame();
-        return ResponseEntity.ok(game);
+    public ResponseEntity<GameView> startGame(@AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        Game game = gameService.createGame(lobbyService.newPlayer(user.userId()));
+        return ResponseEntity.ok(gameService.getView(game.getId(), user.userId()));
+    }
+    
+    // Вид строится для пользователя токена; без токена или не участнику — вид зрителя.
+    // Поэтому ETag — ревизия игры и место смотрящего: при совпадении If-None-Match ответ 304 без чтения полей,
+    // а ответ одного игрока не подходит ни сопернику, ни зрителю
+    @GetMapping("/{gameId}")
+    public ResponseEntity<GameView> getGame(
+            @PathVariable Long gameId,
+            @AuthenticationPrincipal SessionTokenService.SessionUser user,
+            WebRequest request) {
+        int seat = gameService.getSeat(gameId, userId(user));
+        if (request.checkNotModified(etag(gameService.getRevision(gameId), seat))) {
+            return null;
+        }
+        GameView view = gameService.getView(gameId, userId(user));
+        return viewerResponse(etag(view.getRevision(), seat)).body(view);
+    }
+    
+    // Только клетки, изменившиеся с ревизии since
+    @GetMapping("/{gameId}/changes")
+    public ResponseEntity<GameDelta> getChanges(
+            @PathVariable Long gameId,
+            @RequestParam long since,
+            @AuthenticationPrincipal SessionTokenService.SessionUser user,
+            WebRequest request) {
+        int seat = gameService.getSeat(gameId, userId(user));
+        if (request.checkNotModified(etag(gameService.getRevision(gameId), seat))) {
+            return null;
+        }
+        GameDelta delta = gameService.getChanges(gameId, since, userId(user));
+        return viewerResponse(etag(delta.getRevision(), seat)).body(delta);
     }
     
     @PostMapping("/{gameId}/place-ship")
@@ -24,23 +82,74 @@ public class GameController {
             @RequestParam int x,
             @RequestParam int y,
             @RequestParam boolean horizontal,
-            @RequestParam int size) {
-        boolean success = gameService.placeShip(gameId, x, y, horizontal, size);
+            @RequestParam int size,
+            @AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        boolean success = gameService.placeShip(gameId, user.userId(), x, y, horizontal, size);
         return ResponseEntity.ok(success);
     }
     
+    // Весь флот одним запросом вместо десяти place-ship
+    @PostMapping("/{gameId}/fleet")
+    public ResponseEntity<FleetPlacementResponse> placeFleet(
+            @PathVariable Long gameId,
+            @RequestBody List<ShipPlacement> ships,
+            @AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        FleetPlacementResponse response = gameService.placeFleet(gameId, user.userId(), ships);
+        return response.isPlaced() ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+    
     @PostMapping("/{gameId}/shoot")
     public ResponseEntity<Boolean> shoot(
             @PathVariable Long gameId,
             @RequestParam int x,
-            @RequestParam int y) {
-        boolean success = gameService.makeMove(gameId, x, y);
+            @RequestParam int y,
+            @AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        boolean success = gameService.makeMove(gameId, user.userId(), x, y);
         return ResponseEntity.ok(success);
     }
     
     @GetMapping("/{gameId}/status")
-    public ResponseEntity<Game.GameState> getGameStatus(@PathVariable Long gameId) {
+    public ResponseEntity<Game.GameState> getGameStatus(@PathVariable Long gameId, WebRequest request) {
+        String etag = etag(gameService.getRevision(gameId));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Game.GameState status = gameService.getGameStatus(gameId);
-        return ResponseEntity.ok(status);
+        return ResponseEntity.ok().eTag(etag).body(status);
+    }
+    
+    // Поток событий игры (SSE) вместо опроса /status
+    @GetMapping(path = "/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable Long gameId) {
+        // Несуществующая игра — ошибка сразу, а не пустой поток
+        gameService.getGameStatus(gameId);
+        return gameEventBus.subscribeGame(gameId);
+    }
+    
+    // Запись партии из архива; пока партия не заархивирована — 404
+    @GetMapping("/{gameId}/replay")
+    public ResponseEntity<GameReplay> getReplay(@PathVariable Long gameId) {
+        GameReplay replay = gameArchiveService.getReplay(gameId);
+        return replay != null ? ResponseEntity.ok(replay) : ResponseEntity.notFound().build();
+    }
+    
+    private static Long userId(SessionTokenService.SessionUser user) {
+        return user != null ? user.userId() : null;
+    }
+    
+    private static String etag(long revision) {
+        return "\"" + revision + "\"";
+    }
+    
+    private static String etag(long revision, int seat) {
+        return "\"" + revision + "-" + seat + "\"";
+    }
+    
+    // Тело зависит от токена: общим кэшам его хранить нельзя
+    private static ResponseEntity.BodyBuilder viewerResponse(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.empty().cachePrivate())
+                .varyBy(HttpHeaders.AUTHORIZATION);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
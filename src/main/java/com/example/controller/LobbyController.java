@@ -1,14 +1,26 @@
 package com.example.controller;
 
+import com.example.dto.GameView;
+import com.example.dto.MatchTicket;
+import com.example.dto.OpenGamesPage;
+import com.example.dto.PlayerView;
 import com.example.model.Difficulty;
 import com.example.model.Game;
 import com.example.model.GameType;
 import com.example.model.Player;
+import com.example.service.GameEventBus;
+import com.example.service.GameService;
 import com.example.service.LobbyService;
+import com.example.service.Matchmaker;
+import com.example.service.SessionTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -17,36 +29,105 @@ public class LobbyController {
     @Autowired
     private LobbyService lobbyService;
     
+    @Autowired
+    private GameService gameService;
+    
+    @Autowired
+    private GameEventBus gameEventBus;
+    
+    @Autowired
+    private Matchmaker matchmaker;
+    
+    // Игрок создаётся для пользователя токена, имя берётся из его учётной записи
     @PostMapping("/create")
-    public ResponseEntity<Game> createGame(
-            @RequestParam String username,
+    public ResponseEntity<GameView> createGame(
             @RequestParam GameType type,
-            @RequestParam(required = false) Difficulty difficulty) {
-        Player player = new Player(username);
+            @RequestParam(required = false) Difficulty difficulty,
+            @AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        Player player = lobbyService.newPlayer(user.userId());
         Game game = lobbyService.createGame(player, type, difficulty);
-        return ResponseEntity.ok(game);
+        return ResponseEntity.ok(gameService.getView(game.getId(), user.userId()));
     }
     
     @PostMapping("/{gameId}/join")
-    public ResponseEntity<Game> joinGame(
+    public ResponseEntity<GameView> joinGame(
             @PathVariable Long gameId,
-            @RequestParam String username) {
-        Player player = new Player(username);
-        Game game = lobbyService.joinGame(gameId, player);
-        return ResponseEntity.ok(game);
+            @AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        Player player = lobbyService.newPlayer(user.userId());
+        lobbyService.joinGame(gameId, player);
+        return ResponseEntity.ok(gameService.getView(gameId, user.userId()));
     }
     
     @PostMapping("/{gameId}/ready")
-    public ResponseEntity<Game> setReady(
+    public ResponseEntity<GameView> setReady(
             @PathVariable Long gameId,
-            @RequestParam Long playerId) {
-        Game game = lobbyService.setPlayerReady(gameId, playerId);
-        return ResponseEntity.ok(game);
+            @AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        lobbyService.setPlayerReady(gameId, user.userId());
+        return ResponseEntity.ok(gameService.getView(gameId, user.userId()));
+    }
+    
+    // Открытые игры, ждущие второго игрока, по (тип, сложность, время создания); next — курсор следующей страницы
+    @GetMapping("/games")
+    public ResponseEntity<OpenGamesPage> browseOpenGames(
+            @RequestParam(required = false) GameType type,
+            @RequestParam(required = false) Difficulty difficulty,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(lobbyService.browseOpenGames(type, difficulty, cursor, limit));
+    }
+    
+    // Текущая незаконченная игра игрока
+    @GetMapping("/players/{playerId}/game")
+    public ResponseEntity<GameView> getPlayerGame(
+            @PathVariable Long playerId,
+            @AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        Long gameId = lobbyService.findGameForPlayer(playerId, user.userId());
+        if (gameId == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(gameService.getView(gameId, user.userId()));
     }
     
     @GetMapping("/waiting")
-    public ResponseEntity<Map<Long, Player>> getWaitingPlayers() {
-        Map<Long, Player> waitingPlayers = lobbyService.getWaitingPlayers();
+    public ResponseEntity<Map<Long, PlayerView>> getWaitingPlayers() {
+        Map<Long, PlayerView> waitingPlayers = new LinkedHashMap<>();
+        lobbyService.getWaitingPlayers().forEach((id, player) ->
+                waitingPlayers.put(id, new PlayerView(player.getId(), player.getUsername(), player.isReady())));
         return ResponseEntity.ok(waitingPlayers);
     }
-} 
\ No newline at end of file
+    
+    // Заявка на подбор соперника; о найденной игре сообщит /matchmaking/{ticketId}/events
+    @PostMapping("/matchmaking")
+    public ResponseEntity<MatchTicket> enqueue(
+            @RequestParam(required = false) Integer rating,
+            @AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        return ResponseEntity.ok(matchmaker.enqueue(user.userId(), rating));
+    }
+    
+    @GetMapping("/matchmaking/{ticketId}")
+    public ResponseEntity<MatchTicket> getTicket(@PathVariable Long ticketId) {
+        MatchTicket ticket = matchmaker.getTicket(ticketId);
+        return ticket != null ? ResponseEntity.ok(ticket) : ResponseEntity.notFound().build();
+    }
+    
+    @DeleteMapping("/matchmaking/{ticketId}")
+    public ResponseEntity<MatchTicket> cancelTicket(
+            @PathVariable Long ticketId,
+            @AuthenticationPrincipal SessionTokenService.SessionUser user) {
+        MatchTicket ticket = matchmaker.cancel(ticketId, user.userId());
+        return ticket != null ? ResponseEntity.ok(ticket) : ResponseEntity.notFound().build();
+    }
+    
+    // Личный поток заявки (SSE): MATCH_FOUND с id игры и игрока или MATCH_EXPIRED.
+    // Событие, случившееся до подписки, не повторяется — после подписки стоит проверить заявку
+    @GetMapping(path = "/matchmaking/{ticketId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter ticketEvents(@PathVariable Long ticketId) {
+        return gameEventBus.subscribeTicket(ticketId);
+    }
+    
+    // Поток событий лобби (SSE): новые и заполненные игры
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() {
+        return gameEventBus.subscribeLobby();
+    }
+}
\ No newline at end of file
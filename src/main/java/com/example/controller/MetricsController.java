@@ -0,0 +1,19 @@
+package com.example.controller;
+
+import com.example.dto.MetricsSnapshot;
+import com.example.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+    @Autowired
+    private MetricsRegistry metrics;
+    
+    @GetMapping
+    public ResponseEntity<MetricsSnapshot> getMetrics() {
+        return ResponseEntity.ok(metrics.snapshot());
+    }
+}
\ No newline at end of file
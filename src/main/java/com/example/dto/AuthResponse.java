@@ -3,6 +3,8 @@ package com.example.dto;
 public class AuthResponse {
     private String token;
     private String username;
+    private Long userId;
+    private Long avatarId;
 
     public AuthResponse() {
     }
@@ -12,6 +14,13 @@ public class AuthResponse {
         this.username = username;
     }
 
+    public AuthResponse(String token, String username, Long userId, Long avatarId) {
+        this.token = token;
+        this.username = username;
+        this.userId = userId;
+        this.avatarId = avatarId;
+    }
+
     public String getToken() {
         return token;
     }
@@ -27,4 +36,20 @@ public class AuthResponse {
     public void setUsername(String username) {
         this.username = username;
     }
-} 
\ No newline at end of file
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getAvatarId() {
+        return avatarId;
+    }
+
+    public void setAvatarId(Long avatarId) {
+        this.avatarId = avatarId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Результат расстановки всего флота: либо флот поставлен, либо список ошибок.
+ * У ошибки отдельного корабля указан его номер в запросе, у ошибок флота и игры номер не задан.
+ */
+public class FleetPlacementResponse {
+    private boolean placed;
+    private List<ShipError> errors = new ArrayList<>();
+
+    public FleetPlacementResponse() {
+    }
+
+    public FleetPlacementResponse(boolean placed, List<ShipError> errors) {
+        this.placed = placed;
+        this.errors = errors;
+    }
+
+    public boolean isPlaced() {
+        return placed;
+    }
+
+    public void setPlaced(boolean placed) {
+        this.placed = placed;
+    }
+
+    public List<ShipError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ShipError> errors) {
+        this.errors = errors;
+    }
+
+    public static class ShipError {
+        private Integer shipIndex;
+        private String message;
+
+        public ShipError() {
+        }
+
+        public ShipError(Integer shipIndex, String message) {
+            this.shipIndex = shipIndex;
+            this.message = message;
+        }
+
+        public Integer getShipIndex() {
+            return shipIndex;
+        }
+
+        public void setShipIndex(Integer shipIndex) {
+            this.shipIndex = shipIndex;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.dto;
+
+import com.example.model.Game;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Изменения игры с ревизии since. Изменённые клетки записаны подряд по три символа:
+ * две цифры индекса клетки (x * 10 + y) и её новый символ в формате GameView, например "55#09X".
+ * Если ревизии since уже нет в истории, full = true и вместо изменений передаётся вся игра в view.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameDelta {
+    private Long gameId;
+    private long since;
+    private long revision;
+    private boolean full;
+    private Game.GameState state;
+    private boolean playerTurn;
+    private String ownChanges;
+    private String opponentChanges;
+    private GameView view;
+
+    public GameDelta() {
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    public void setSince(long since) {
+        this.since = since;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public Game.GameState getState() {
+        return state;
+    }
+
+    public void setState(Game.GameState state) {
+        this.state = state;
+    }
+
+    public boolean isPlayerTurn() {
+        return playerTurn;
+    }
+
+    public void setPlayerTurn(boolean playerTurn) {
+        this.playerTurn = playerTurn;
+    }
+
+    public String getOwnChanges() {
+        return ownChanges;
+    }
+
+    public void setOwnChanges(String ownChanges) {
+        this.ownChanges = ownChanges;
+    }
+
+    public String getOpponentChanges() {
+        return opponentChanges;
+    }
+
+    public void setOpponentChanges(String opponentChanges) {
+        this.opponentChanges = opponentChanges;
+    }
+
+    public GameView getView() {
+        return view;
+    }
+
+    public void setView(GameView view) {
+        this.view = view;
+    }
+}
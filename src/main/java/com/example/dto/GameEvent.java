@@ -0,0 +1,160 @@
+package com.example.dto;
+
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.model.ShotResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Событие игры или лобби для подписчиков SSE. Заполняются только поля, относящиеся к типу события.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameEvent {
+    public enum Type {
+        SHOT,
+        TURN,
+        STATE,
+        PLAYER_JOINED,
+        PLAYER_READY,
+        GAME_CREATED,
+        GAME_FULL,
+        // Игру закрыли по тайм-ауту, так и не дождавшись второго игрока
+        GAME_CLOSED,
+        // Личные события заявки на подбор соперника
+        MATCH_FOUND,
+        MATCH_EXPIRED
+    }
+
+    private Type type;
+    private Long gameId;
+    private Integer x;
+    private Integer y;
+    private ShotResult result;
+    // true — стрелял первый игрок (в одиночной игре — человек), false — второй игрок или ИИ
+    private Boolean firstPlayer;
+    private Boolean playerTurn;
+    private Game.GameState state;
+    private GameType gameType;
+    private Long playerId;
+
+    public GameEvent() {
+    }
+
+    public GameEvent(Type type, Long gameId) {
+        this.type = type;
+        this.gameId = gameId;
+    }
+
+    public static GameEvent shot(Long gameId, int x, int y, ShotResult result, boolean firstPlayer) {
+        GameEvent event = new GameEvent(Type.SHOT, gameId);
+        event.x = x;
+        event.y = y;
+        event.result = result;
+        event.firstPlayer = firstPlayer;
+        return event;
+    }
+
+    public static GameEvent turn(Long gameId, boolean playerTurn) {
+        GameEvent event = new GameEvent(Type.TURN, gameId);
+        event.playerTurn = playerTurn;
+        return event;
+    }
+
+    public static GameEvent state(Long gameId, Game.GameState state) {
+        GameEvent event = new GameEvent(Type.STATE, gameId);
+        event.state = state;
+        return event;
+    }
+
+    public static GameEvent player(Type type, Long gameId, Long playerId) {
+        GameEvent event = new GameEvent(type, gameId);
+        event.playerId = playerId;
+        return event;
+    }
+
+    public static GameEvent lobby(Type type, Long gameId, GameType gameType) {
+        GameEvent event = new GameEvent(type, gameId);
+        event.gameType = gameType;
+        return event;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public Integer getX() {
+        return x;
+    }
+
+    public void setX(Integer x) {
+        this.x = x;
+    }
+
+    public Integer getY() {
+        return y;
+    }
+
+    public void setY(Integer y) {
+        this.y = y;
+    }
+
+    public ShotResult getResult() {
+        return result;
+    }
+
+    public void setResult(ShotResult result) {
+        this.result = result;
+    }
+
+    public Boolean getFirstPlayer() {
+        return firstPlayer;
+    }
+
+    public void setFirstPlayer(Boolean firstPlayer) {
+        this.firstPlayer = firstPlayer;
+    }
+
+    public Boolean getPlayerTurn() {
+        return playerTurn;
+    }
+
+    public void setPlayerTurn(Boolean playerTurn) {
+        this.playerTurn = playerTurn;
+    }
+
+    public Game.GameState getState() {
+        return state;
+    }
+
+    public void setState(Game.GameState state) {
+        this.state = state;
+    }
+
+    public GameType getGameType() {
+        return gameType;
+    }
+
+    public void setGameType(GameType gameType) {
+        this.gameType = gameType;
+    }
+
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(Long playerId) {
+        this.playerId = playerId;
+    }
+}
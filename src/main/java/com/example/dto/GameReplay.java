@@ -0,0 +1,187 @@
+package com.example.dto;
+
+import com.example.model.Difficulty;
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Запись законченной партии из архива. Поля — в конце партии, в формате GameView с открытыми кораблями.
+ * shots — выстрелы по порядку; их нет, если порядок не сохранился.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameReplay {
+    private Long gameId;
+    private GameType type;
+    private Difficulty difficulty;
+    private String player1Name;
+    private String player2Name;
+    // 1 — первый игрок, 2 — второй игрок или ИИ
+    private Integer winner;
+    private Game.EndReason endReason;
+    private Instant createdAt;
+    private Instant endedAt;
+    private List<ShipPlacement> playerFleet;
+    private List<ShipPlacement> aiFleet;
+    private String playerBoard;
+    private String aiBoard;
+    private List<Shot> shots;
+
+    public GameReplay() {
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public GameType getType() {
+        return type;
+    }
+
+    public void setType(GameType type) {
+        this.type = type;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public String getPlayer1Name() {
+        return player1Name;
+    }
+
+    public void setPlayer1Name(String player1Name) {
+        this.player1Name = player1Name;
+    }
+
+    public String getPlayer2Name() {
+        return player2Name;
+    }
+
+    public void setPlayer2Name(String player2Name) {
+        this.player2Name = player2Name;
+    }
+
+    public Integer getWinner() {
+        return winner;
+    }
+
+    public void setWinner(Integer winner) {
+        this.winner = winner;
+    }
+
+    public Game.EndReason getEndReason() {
+        return endReason;
+    }
+
+    public void setEndReason(Game.EndReason endReason) {
+        this.endReason = endReason;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getEndedAt() {
+        return endedAt;
+    }
+
+    public void setEndedAt(Instant endedAt) {
+        this.endedAt = endedAt;
+    }
+
+    public List<ShipPlacement> getPlayerFleet() {
+        return playerFleet;
+    }
+
+    public void setPlayerFleet(List<ShipPlacement> playerFleet) {
+        this.playerFleet = playerFleet;
+    }
+
+    public List<ShipPlacement> getAiFleet() {
+        return aiFleet;
+    }
+
+    public void setAiFleet(List<ShipPlacement> aiFleet) {
+        this.aiFleet = aiFleet;
+    }
+
+    public String getPlayerBoard() {
+        return playerBoard;
+    }
+
+    public void setPlayerBoard(String playerBoard) {
+        this.playerBoard = playerBoard;
+    }
+
+    public String getAiBoard() {
+        return aiBoard;
+    }
+
+    public void setAiBoard(String aiBoard) {
+        this.aiBoard = aiBoard;
+    }
+
+    public List<Shot> getShots() {
+        return shots;
+    }
+
+    public void setShots(List<Shot> shots) {
+        this.shots = shots;
+    }
+
+    public static class Shot {
+        private int x;
+        private int y;
+        // true — стрелял первый игрок (по aiBoard)
+        private boolean firstPlayer;
+
+        public Shot() {
+        }
+
+        public Shot(int x, int y, boolean firstPlayer) {
+            this.x = x;
+            this.y = y;
+            this.firstPlayer = firstPlayer;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public void setX(int x) {
+            this.x = x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public void setY(int y) {
+            this.y = y;
+        }
+
+        public boolean isFirstPlayer() {
+            return firstPlayer;
+        }
+
+        public void setFirstPlayer(boolean firstPlayer) {
+            this.firstPlayer = firstPlayer;
+        }
+    }
+}
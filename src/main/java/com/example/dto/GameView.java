@@ -0,0 +1,138 @@
+package com.example.dto;
+
+import com.example.model.Difficulty;
+import com.example.model.Game;
+import com.example.model.GameType;
+
+/**
+ * Игра глазами одного игрока. Поля — строки по 100 символов, клетка (x, y) в позиции x * 10 + y:
+ * '.' — вода или неизвестно, 'S' — свой корабль, 'X' — попадание, '#' — потопленный корабль, 'O' — промах.
+ * На поле противника корабли видны только подбитыми. Зрителю, не участвующему в игре, ownBoard — поле
+ * первого игрока, opponentBoard — второго, и на обоих корабли скрыты до конца игры.
+ */
+public class GameView {
+    private Long id;
+    private long revision;
+    private GameType type;
+    private Difficulty difficulty;
+    private Game.GameState state;
+    // Причина досрочного окончания: FORFEIT — проиграл тот, чей был ход
+    private Game.EndReason endReason;
+    // Ход первого игрока
+    private boolean playerTurn;
+    // true, если смотрит первый игрок
+    private boolean firstPlayer;
+    // true, если смотрит не участник игры
+    private boolean spectator;
+    private PlayerView player1;
+    private PlayerView player2;
+    private String ownBoard;
+    private String opponentBoard;
+
+    public GameView() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public GameType getType() {
+        return type;
+    }
+
+    public void setType(GameType type) {
+        this.type = type;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Game.GameState getState() {
+        return state;
+    }
+
+    public void setState(Game.GameState state) {
+        this.state = state;
+    }
+
+    public Game.EndReason getEndReason() {
+        return endReason;
+    }
+
+    public void setEndReason(Game.EndReason endReason) {
+        this.endReason = endReason;
+    }
+
+    public boolean isPlayerTurn() {
+        return playerTurn;
+    }
+
+    public void setPlayerTurn(boolean playerTurn) {
+        this.playerTurn = playerTurn;
+    }
+
+    public boolean isFirstPlayer() {
+        return firstPlayer;
+    }
+
+    public void setFirstPlayer(boolean firstPlayer) {
+        this.firstPlayer = firstPlayer;
+    }
+
+    public boolean isSpectator() {
+        return spectator;
+    }
+
+    public void setSpectator(boolean spectator) {
+        this.spectator = spectator;
+    }
+
+    public PlayerView getPlayer1() {
+        return player1;
+    }
+
+    public void setPlayer1(PlayerView player1) {
+        this.player1 = player1;
+    }
+
+    public PlayerView getPlayer2() {
+        return player2;
+    }
+
+    public void setPlayer2(PlayerView player2) {
+        this.player2 = player2;
+    }
+
+    public String getOwnBoard() {
+        return ownBoard;
+    }
+
+    public void setOwnBoard(String ownBoard) {
+        this.ownBoard = ownBoard;
+    }
+
+    public String getOpponentBoard() {
+        return opponentBoard;
+    }
+
+    public void setOpponentBoard(String opponentBoard) {
+        this.opponentBoard = opponentBoard;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Заявка на подбор соперника. gameId и playerId заполняются, когда игра найдена.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MatchTicket {
+    public enum Status {
+        WAITING,
+        // Пара найдена, игра создаётся
+        MATCHING,
+        MATCHED,
+        CANCELLED,
+        EXPIRED
+    }
+
+    private Long id;
+    private Status status;
+    private int rating;
+    private Long gameId;
+    private Long playerId;
+
+    public MatchTicket() {
+    }
+
+    public MatchTicket(Long id, Status status, int rating, Long gameId, Long playerId) {
+        this.id = id;
+        this.status = status;
+        this.rating = rating;
+        this.gameId = gameId;
+        this.playerId = playerId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public void setRating(int rating) {
+        this.rating = rating;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(Long playerId) {
+        this.playerId = playerId;
+    }
+}
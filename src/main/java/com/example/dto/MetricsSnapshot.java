@@ -0,0 +1,127 @@
+package com.example.dto;
+
+import com.example.metrics.LatencyHistogram;
+
+import java.util.Map;
+
+public class MetricsSnapshot {
+    private Map<String, TimerStats> timers;
+    private Map<String, Long> counters;
+    private Map<String, Long> gauges;
+    private Map<String, Double> perRequest;
+
+    public MetricsSnapshot() {
+    }
+
+    public MetricsSnapshot(Map<String, TimerStats> timers, Map<String, Long> counters,
+                           Map<String, Long> gauges, Map<String, Double> perRequest) {
+        this.timers = timers;
+        this.counters = counters;
+        this.gauges = gauges;
+        this.perRequest = perRequest;
+    }
+
+    public Map<String, TimerStats> getTimers() {
+        return timers;
+    }
+
+    public void setTimers(Map<String, TimerStats> timers) {
+        this.timers = timers;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public void setCounters(Map<String, Long> counters) {
+        this.counters = counters;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public void setGauges(Map<String, Long> gauges) {
+        this.gauges = gauges;
+    }
+
+    public Map<String, Double> getPerRequest() {
+        return perRequest;
+    }
+
+    public void setPerRequest(Map<String, Double> perRequest) {
+        this.perRequest = perRequest;
+    }
+
+    /**
+     * Сводка таймера, времена в микросекундах.
+     */
+    public static class TimerStats {
+        private long count;
+        private double meanUs;
+        private double p50Us;
+        private double p99Us;
+        private double p999Us;
+        private double maxUs;
+
+        public TimerStats() {
+        }
+
+        public TimerStats(LatencyHistogram histogram) {
+            this.count = histogram.getCount();
+            this.meanUs = histogram.getMean() / 1000;
+            this.p50Us = histogram.getPercentile(50) / 1000.0;
+            this.p99Us = histogram.getPercentile(99) / 1000.0;
+            this.p999Us = histogram.getPercentile(99.9) / 1000.0;
+            this.maxUs = histogram.getMax() / 1000.0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public double getMeanUs() {
+            return meanUs;
+        }
+
+        public void setMeanUs(double meanUs) {
+            this.meanUs = meanUs;
+        }
+
+        public double getP50Us() {
+            return p50Us;
+        }
+
+        public void setP50Us(double p50Us) {
+            this.p50Us = p50Us;
+        }
+
+        public double getP99Us() {
+            return p99Us;
+        }
+
+        public void setP99Us(double p99Us) {
+            this.p99Us = p99Us;
+        }
+
+        public double getP999Us() {
+            return p999Us;
+        }
+
+        public void setP999Us(double p999Us) {
+            this.p999Us = p999Us;
+        }
+
+        public double getMaxUs() {
+            return maxUs;
+        }
+
+        public void setMaxUs(double maxUs) {
+            this.maxUs = maxUs;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.dto;
+
+import com.example.model.Difficulty;
+import com.example.model.GameType;
+
+import java.time.Instant;
+
+/**
+ * Открытая игра в списке лобби: ждёт второго игрока.
+ */
+public class OpenGameView {
+    private Long id;
+    private GameType type;
+    private Difficulty difficulty;
+    private Instant createdAt;
+    // Имя создателя игры
+    private String host;
+
+    public OpenGameView() {
+    }
+
+    public OpenGameView(Long id, GameType type, Difficulty difficulty, Instant createdAt, String host) {
+        this.id = id;
+        this.type = type;
+        this.difficulty = difficulty;
+        this.createdAt = createdAt;
+        this.host = host;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public GameType getType() {
+        return type;
+    }
+
+    public void setType(GameType type) {
+        this.type = type;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Страница открытых игр. next — курсор для следующей страницы, null — страниц больше нет.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OpenGamesPage {
+    private List<OpenGameView> games;
+    private String next;
+
+    public OpenGamesPage() {
+    }
+
+    public OpenGamesPage(List<OpenGameView> games, String next) {
+        this.games = games;
+        this.next = next;
+    }
+
+    public List<OpenGameView> getGames() {
+        return games;
+    }
+
+    public void setGames(List<OpenGameView> games) {
+        this.games = games;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.dto;
+
+public class PlayerView {
+    private Long id;
+    private String username;
+    private boolean ready;
+
+    public PlayerView() {
+    }
+
+    public PlayerView(Long id, String username, boolean ready) {
+        this.id = id;
+        this.username = username;
+        this.ready = ready;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.dto;
+
+public class ShipPlacement {
+    private int x;
+    private int y;
+    private boolean horizontal;
+    private int size;
+
+    public ShipPlacement() {
+    }
+
+    public ShipPlacement(int x, int y, boolean horizontal, int size) {
+        this.x = x;
+        this.y = y;
+        this.horizontal = horizontal;
+        this.size = size;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public void setX(int x) {
+        this.x = x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void setY(int y) {
+        this.y = y;
+    }
+
+    public boolean isHorizontal() {
+        return horizontal;
+    }
+
+    public void setHorizontal(boolean horizontal) {
+        this.horizontal = horizontal;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
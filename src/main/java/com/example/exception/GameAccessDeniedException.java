@@ -0,0 +1,9 @@
+package com.example.exception;
+
+public class GameAccessDeniedException extends GameException {
+    private static final long serialVersionUID = 1L;
+
+    public GameAccessDeniedException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
     
@@ -23,8 +25,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
     
+    // Действие от имени пользователя, который не участвует в игре или не владеет заявкой
+    @ExceptionHandler(GameAccessDeniedException.class)
+    public ResponseEntity<String> handleGameAccessDeniedException(GameAccessDeniedException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ex.getMessage());
+    }
+    
     @ExceptionHandler(GameException.class)
     public ResponseEntity<String> handleGameException(GameException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
+    
+    // Очередь пула закончилась: сервер перегружен, клиенту стоит повторить позже
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecutionException(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Server is busy, try again later");
+    }
 } 
\ No newline at end of file
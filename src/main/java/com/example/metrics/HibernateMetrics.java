@@ -0,0 +1,103 @@
+package com.example.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики работы с базой: каждая SQL-инструкция, подготовленная Hibernate, и каждая
+ * загруженная, вставленная, изменённая или удалённая сущность. Массовые запросы
+ * (@Modifying, нативные удаления) считаются как одна инструкция без строк.
+ */
+@Component
+public class HibernateMetrics implements HibernatePropertiesCustomizer, StatementInspector, Integrator,
+        PostLoadEventListener, PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    private static final long serialVersionUID = 1L;
+
+    private final LongAdder statements;
+    private final LongAdder loaded;
+    private final LongAdder inserted;
+    private final LongAdder updated;
+    private final LongAdder deleted;
+
+    public HibernateMetrics(MetricsRegistry metrics) {
+        this.statements = metrics.counter("db.statements");
+        this.loaded = metrics.counter("db.rows.loaded");
+        this.inserted = metrics.counter("db.rows.inserted");
+        this.updated = metrics.counter("db.rows.updated");
+        this.deleted = metrics.counter("db.rows.deleted");
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(this));
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements.increment();
+        return sql;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, this);
+        listeners.appendListeners(EventType.POST_INSERT, this);
+        listeners.appendListeners(EventType.POST_UPDATE, this);
+        listeners.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        loaded.increment();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        inserted.increment();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        updated.increment();
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        deleted.increment();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.metrics;
+
+import com.example.dto.MetricsSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Таймеры, счётчики и датчики приложения по именам. Запись без блокировок и без выделения памяти:
+ * поиск метрики по имени — чтение ConcurrentHashMap, сама запись — атомарные инкременты
+ * LatencyHistogram или LongAdder, поэтому метрики можно не выключать в продакшене.
+ * Значения накапливаются с запуска приложения.
+ */
+@Component
+public class MetricsRegistry {
+    public static final String HTTP_REQUESTS = "http.requests";
+    private static final String DB_PREFIX = "db.";
+
+    private final ConcurrentHashMap<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    public LatencyHistogram timer(String name) {
+        LatencyHistogram timer = timers.get(name);
+        return timer != null ? timer : timers.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Записывает в таймер время от startNanos (значение System.nanoTime()) до текущего момента.
+     */
+    public void recordSince(String name, long startNanos) {
+        timer(name).record(System.nanoTime() - startNanos);
+    }
+
+    public LongAdder counter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Датчик — значение, которое читается в момент снятия метрик, например размер очереди.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, MetricsSnapshot.TimerStats> timerStats = new TreeMap<>();
+        timers.forEach((name, histogram) -> timerStats.put(name, new MetricsSnapshot.TimerStats(histogram)));
+
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, value) -> gaugeValues.put(name, value.getAsLong()));
+
+        // Команды игр выполняются в потоках почтовых ящиков, а не в потоке запроса,
+        // поэтому работа с базой на запрос считается как среднее: всего операций / всего запросов
+        Map<String, Double> perRequest = new TreeMap<>();
+        long requests = counterValues.getOrDefault(HTTP_REQUESTS, 0L);
+        if (requests > 0) {
+            counterValues.forEach((name, value) -> {
+                if (name.startsWith(DB_PREFIX)) {
+                    perRequest.put(name, (double) value / requests);
+                }
+            });
+        }
+        return new MetricsSnapshot(timerStats, counterValues, gaugeValues, perRequest);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Число HTTP-запросов и время их обработки в потоке запроса. Долгие SSE-подписки
+ * и асинхронные ответы учитываются только до освобождения потока.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private final MetricsRegistry metrics;
+    private final LongAdder requests;
+
+    public RequestMetricsFilter(MetricsRegistry metrics) {
+        this.metrics = metrics;
+        this.requests = metrics.counter(MetricsRegistry.HTTP_REQUESTS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            requests.increment();
+            metrics.recordSince("http.request", start);
+        }
+    }
+}
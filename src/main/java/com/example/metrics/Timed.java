@@ -0,0 +1,16 @@
+package com.example.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Время выполнения метода бина записывается в таймер MetricsRegistry с указанным именем.
+ * Вызовы внутри того же бина мимо прокси не замеряются.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Timed {
+    String value();
+}
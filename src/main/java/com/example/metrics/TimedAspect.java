@@ -0,0 +1,26 @@
+package com.example.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+public class TimedAspect {
+    private final MetricsRegistry metrics;
+
+    public TimedAspect(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Around("@annotation(timed)")
+    public Object time(ProceedingJoinPoint joinPoint, Timed timed) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            metrics.recordSince(timed.value(), start);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.model;
+
+/**
+ * Двоичный формат поля для колонки game_boards.packed_state:
+ * <pre>
+ * [версия][число кораблей][по 2 байта на корабль: начальная клетка, размер | горизонтальность << 4][13 байт маски выстрелов]
+ * </pre>
+ * Попадания и промахи восстанавливаются из маски выстрелов и расположения кораблей,
+ * так что поле с 10 кораблями занимает 35 байт.
+ */
+public final class BoardCodec {
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 2;
+    private static final int SHOTS_SIZE = (BoardEngine.CELLS + 7) / 8;
+
+    private BoardCodec() {
+    }
+
+    public static byte[] encode(BoardEngine engine) {
+        int shipCount = engine.getShipCount();
+        byte[] data = new byte[HEADER_SIZE + shipCount * 2 + SHOTS_SIZE];
+        data[0] = VERSION;
+        data[1] = (byte) shipCount;
+        for (int shipId = 1; shipId <= shipCount; shipId++) {
+            int offset = HEADER_SIZE + (shipId - 1) * 2;
+            data[offset] = (byte) engine.getShipStart(shipId);
+            data[offset + 1] = (byte) (engine.getShipSize(shipId) | (engine.isShipHorizontal(shipId) ? 0x10 : 0));
+        }
+        for (int cell = 0; cell < BoardEngine.CELLS; cell++) {
+            if (engine.isShot(cell)) {
+                markShot(data, cell);
+            }
+        }
+        return data;
+    }
+
+    public static BoardEngine decode(byte[] data) {
+        BoardEngine engine = new BoardEngine();
+        if (data == null || data.length == 0) {
+            return engine;
+        }
+        if (data[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported board encoding version: " + data[0]);
+        }
+
+        int shipCount = data[1];
+        for (int i = 0; i < shipCount; i++) {
+            int offset = HEADER_SIZE + i * 2;
+            int start = data[offset];
+            int size = data[offset + 1] & 0x0F;
+            boolean horizontal = (data[offset + 1] & 0x10) != 0;
+            engine.place(start / BoardEngine.SIZE, start % BoardEngine.SIZE, horizontal, size);
+        }
+
+        int shotsOffset = HEADER_SIZE + shipCount * 2;
+        for (int cell = 0; cell < BoardEngine.CELLS; cell++) {
+            if ((data[shotsOffset + (cell >>> 3)] & (1 << (cell & 7))) != 0) {
+                engine.shoot(cell / BoardEngine.SIZE, cell % BoardEngine.SIZE);
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Отмечает выстрел прямо в уже закодированном поле, без повторного кодирования.
+     */
+    public static void markShot(byte[] data, int cell) {
+        int shotsOffset = HEADER_SIZE + data[1] * 2;
+        data[shotsOffset + (cell >>> 3)] |= (byte) (1 << (cell & 7));
+    }
+}
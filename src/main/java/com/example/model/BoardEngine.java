@@ -0,0 +1,177 @@
+package com.example.model;
+
+/**
+ * Компактное состояние поля 10x10.
+ * Корабли, попадания и промахи хранятся битовыми масками (две long на 100 клеток),
+ * номер корабля в клетке — в массиве byte. Все проверки и выстрелы O(1) без выделения памяти.
+ * Клетка (x, y) имеет индекс x * 10 + y — в том же порядке, в котором GameBoard создаёт клетки.
+ */
+public final class BoardEngine {
+    public static final int SIZE = 10;
+    public static final int CELLS = SIZE * SIZE;
+    // больше 25 кораблей без касаний на поле 10x10 не поместится
+    public static final int MAX_SHIPS = 25;
+
+    private long shipLo;
+    private long shipHi;
+    private long hitLo;
+    private long hitHi;
+    private long missLo;
+    private long missHi;
+
+    // 0 — вода, иначе номер корабля (1..shipCount)
+    private final byte[] shipIds = new byte[CELLS];
+    private final byte[] shipStarts = new byte[MAX_SHIPS + 1];
+    private final byte[] shipSizes = new byte[MAX_SHIPS + 1];
+    private final byte[] shipHits = new byte[MAX_SHIPS + 1];
+    private final boolean[] shipHorizontal = new boolean[MAX_SHIPS + 1];
+    private int shipCount;
+    private int sunkCount;
+
+    public static int index(int x, int y) {
+        return x * SIZE + y;
+    }
+
+    public static boolean isInside(int x, int y) {
+        return x >= 0 && x < SIZE && y >= 0 && y < SIZE;
+    }
+
+    public boolean hasShip(int index) {
+        return test(shipLo, shipHi, index);
+    }
+
+    public boolean isHit(int index) {
+        return test(hitLo, hitHi, index);
+    }
+
+    public boolean isMiss(int index) {
+        return test(missLo, missHi, index);
+    }
+
+    public boolean isShot(int index) {
+        return isHit(index) || isMiss(index);
+    }
+
+    public boolean canShoot(int x, int y) {
+        return isInside(x, y) && !isShot(index(x, y));
+    }
+
+    public Cell.CellState stateAt(int index) {
+        if (isHit(index)) {
+            return Cell.CellState.HIT;
+        }
+        if (isMiss(index)) {
+            return Cell.CellState.MISS;
+        }
+        return hasShip(index) ? Cell.CellState.SHIP : Cell.CellState.EMPTY;
+    }
+
+    public boolean canPlace(int x, int y, boolean horizontal, int size) {
+        return canPlace(PlacementTable.id(x, y, horizontal, size));
+    }
+
+    /**
+     * Корабль вместе с ореолом в одну клетку не должен задевать другие корабли —
+     * одно пересечение масок из PlacementTable.
+     */
+    public boolean canPlace(int placementId) {
+        return placementId >= 0
+                && shipCount < MAX_SHIPS
+                && (PlacementTable.haloLo(placementId) & shipLo) == 0
+                && (PlacementTable.haloHi(placementId) & shipHi) == 0;
+    }
+
+    /**
+     * Ставит корабль, если это допустимо.
+     *
+     * @return номер корабля (1..MAX_SHIPS) или 0, если поставить нельзя
+     */
+    public int place(int x, int y, boolean horizontal, int size) {
+        int placementId = PlacementTable.id(x, y, horizontal, size);
+        if (!canPlace(placementId)) {
+            return 0;
+        }
+
+        int id = ++shipCount;
+        int start = index(x, y);
+        int step = horizontal ? SIZE : 1;
+        shipStarts[id] = (byte) start;
+        shipSizes[id] = (byte) size;
+        shipHits[id] = 0;
+        shipHorizontal[id] = horizontal;
+        for (int i = 0, cell = start; i < size; i++, cell += step) {
+            shipIds[cell] = (byte) id;
+        }
+        shipLo |= PlacementTable.bodyLo(placementId);
+        shipHi |= PlacementTable.bodyHi(placementId);
+        return id;
+    }
+
+    public ShotResult shoot(int x, int y) {
+        if (!canShoot(x, y)) {
+            return ShotResult.INVALID;
+        }
+
+        int cell = index(x, y);
+        int id = shipIds[cell];
+        if (id == 0) {
+            if (cell < 64) {
+                missLo |= 1L << cell;
+            } else {
+                missHi |= 1L << (cell - 64);
+            }
+            return ShotResult.MISS;
+        }
+
+        if (cell < 64) {
+            hitLo |= 1L << cell;
+        } else {
+            hitHi |= 1L << (cell - 64);
+        }
+        if (++shipHits[id] == shipSizes[id]) {
+            sunkCount++;
+            return ShotResult.SUNK;
+        }
+        return ShotResult.HIT;
+    }
+
+    public int shipIdAt(int index) {
+        return shipIds[index];
+    }
+
+    public int getShipStart(int shipId) {
+        return shipStarts[shipId];
+    }
+
+    public int getShipSize(int shipId) {
+        return shipSizes[shipId];
+    }
+
+    public int getShipHits(int shipId) {
+        return shipHits[shipId];
+    }
+
+    public boolean isShipHorizontal(int shipId) {
+        return shipHorizontal[shipId];
+    }
+
+    public boolean isSunk(int shipId) {
+        return shipId > 0 && shipId <= shipCount && shipHits[shipId] == shipSizes[shipId];
+    }
+
+    public int getShipCount() {
+        return shipCount;
+    }
+
+    public int getSunkCount() {
+        return sunkCount;
+    }
+
+    public boolean allShipsSunk() {
+        return sunkCount == shipCount;
+    }
+
+    private static boolean test(long lo, long hi, int index) {
+        return index < 64 ? (lo >>> index & 1L) != 0 : (hi >>> (index - 64) & 1L) != 0;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.model;
+
+public enum BoardStorage {
+    // Каждая клетка и корабль — отдельная строка в cells/ships
+    CELLS,
+    // Всё поле — одна закодированная колонка game_boards.packed_state
+    PACKED
+}
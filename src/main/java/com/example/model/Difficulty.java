@@ -3,5 +3,6 @@ package com.example.model;
 public enum Difficulty {
     EASY,
     MEDIUM,
-    HARD
+    HARD,
+    EXPERT
 } 
\ No newline at end of file
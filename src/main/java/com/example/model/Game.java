@@ -2,12 +2,25 @@ package com.example.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
-import java.util.List;
+
+import java.time.Instant;
 
 @Data
 @Entity
 @Table(name = "games")
+// Вся игра для реестра: поля и игроки одним запросом с join, клетки и корабли полей — пачками (@BatchSize)
+@NamedEntityGraph(name = Game.AGGREGATE_GRAPH, attributeNodes = {
+        @NamedAttributeNode("playerBoard"),
+        @NamedAttributeNode("aiBoard"),
+        @NamedAttributeNode(value = "player1", subgraph = "player"),
+        @NamedAttributeNode(value = "player2", subgraph = "player")
+}, subgraphs = @NamedSubgraph(name = "player", attributeNodes = {
+        @NamedAttributeNode("gameBoard"),
+        @NamedAttributeNode("user")
+}))
 public class Game {
+    public static final String AGGREGATE_GRAPH = "Game.aggregate";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -43,43 +56,100 @@ public class Game {
     @JoinColumn(name = "player2_id")
     private Player player2;
     
+    // Номер последнего записанного в журнал хода, учтённого в сохранённом состоянии
+    @Column(name = "journal_seq", columnDefinition = "integer not null default 0")
+    private int journalSeq;
+    
+    // Растёт при каждом ходе и смене состояния, служит ETag и точкой отсчёта для изменений
+    @Column(name = "revision", columnDefinition = "bigint not null default 0")
+    private long revision;
+    
+    // Страховка от гонок между узлами: реестр упорядочивает команды только внутри одного процесса
+    @Version
+    @Column(name = "version", columnDefinition = "bigint not null default 0")
+    private long version;
+    
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+    
+    // Время последнего изменения игры, от него отсчитываются тайм-ауты хода и простоя
+    @Column(name = "last_activity_at")
+    private Instant lastActivityAt;
+    
+    // Почему игра закончилась без потопления флота; null — обычное окончание
+    @Column(name = "end_reason", length = 16)
+    @Enumerated(EnumType.STRING)
+    private EndReason endReason;
+    
+    @Column(name = "ended_at")
+    private Instant endedAt;
+    
+    // Состояние ИИ одиночной игры в формате AiStateCodec
+    @Column(name = "ai_state")
+    private byte[] aiState;
+    
+    // Выстрелы по порядку в формате ReplayCodec, по байту на выстрел — для архива партии
+    @Column(name = "shot_log", length = 2 * BoardEngine.CELLS)
+    private byte[] shotLog;
+    
     public Game() {
-        this.playerBoard = new GameBoard();
-        this.aiBoard = new GameBoard();
+        this(BoardStorage.CELLS);
+    }
+    
+    // Формат хранения новых полей задаёт создающий игру сервис (настройка game.board.storage)
+    public Game(BoardStorage boardStorage) {
+        this.playerBoard = new GameBoard(boardStorage);
+        this.aiBoard = new GameBoard(boardStorage);
         this.isPlayerTurn = true;
         this.state = GameState.PLACING_SHIPS;
+        this.createdAt = Instant.now();
+        this.lastActivityAt = createdAt;
     }
     
     public boolean makeMove(int x, int y, boolean isPlayerMove) {
+        return shoot(x, y, isPlayerMove) != ShotResult.INVALID;
+    }
+    
+    public ShotResult shoot(int x, int y, boolean isPlayerMove) {
         GameBoard targetBoard = isPlayerMove ? aiBoard : playerBoard;
-        List<Cell> cells = targetBoard.getCells();
-        
-        for (Cell cell : cells) {
-            if (cell.getX() == x && cell.getY() == y) {
-                if (cell.getState() == Cell.CellState.EMPTY || cell.getState() == Cell.CellState.SHIP) {
-                    cell.hit();
-                    if (cell.getState() == Cell.CellState.HIT && cell.getShip() != null && cell.getShip().isSunk()) {
-                        if (isPlayerMove) {
-                            aiBoard.sinkShip(cell.getShip());
-                        } else {
-                            playerBoard.sinkShip(cell.getShip());
-                        }
-                    }
-                    return true;
-                }
-                return false;
-            }
+        ShotResult result = targetBoard.shoot(x, y);
+        if (result != ShotResult.INVALID) {
+            shotLog = ReplayCodec.appendShot(shotLog, BoardEngine.index(x, y), !isPlayerMove);
         }
-        return false;
+        return result;
+    }
+    
+    public void bumpRevision() {
+        revision++;
     }
     
     public boolean isGameOver() {
         return playerBoard.areAllShipsSunk() || aiBoard.areAllShipsSunk();
     }
     
+    /**
+     * @return место пользователя в игре: 1 — первый игрок, 2 — второй, 0 — не участник
+     */
+    public int seatOf(Long userId) {
+        if (player1 != null && player1.belongsTo(userId)) {
+            return 1;
+        }
+        if (player2 != null && player2.belongsTo(userId)) {
+            return 2;
+        }
+        return 0;
+    }
+    
     public enum GameState {
         PLACING_SHIPS,
         IN_PROGRESS,
         FINISHED
     }
+    
+    public enum EndReason {
+        // Игрок не походил вовремя и проиграл; проигравший — тот, чей был ход
+        FORFEIT,
+        // Игру бросили до начала: не дождались второго игрока или расстановки
+        EXPIRED
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Законченная партия после архивации: сведения об игре и запись в формате ReplayCodec
+ * вместо строк games, players, game_boards, cells и ships.
+ */
+@Data
+@Entity
+@Table(name = "game_archives")
+public class GameArchive implements Persistable<Long> {
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private GameType type;
+
+    @Enumerated(EnumType.STRING)
+    private Difficulty difficulty;
+
+    @Column(name = "player1_name")
+    private String player1Name;
+
+    @Column(name = "player2_name")
+    private String player2Name;
+
+    // 1 — победил первый игрок, 2 — второй игрок или ИИ, null — победителя нет
+    @Column(name = "winner")
+    private Integer winner;
+
+    @Column(name = "end_reason", length = 16)
+    @Enumerated(EnumType.STRING)
+    private Game.EndReason endReason;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "ended_at")
+    private Instant endedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @Column(name = "replay", nullable = false, length = 512)
+    private byte[] replay;
+
+    // id берётся у игры, поэтому без этого флага save делал бы лишний select перед каждой вставкой
+    @Transient
+    private boolean newRecord;
+
+    public GameArchive() {
+    }
+
+    public GameArchive(Long gameId) {
+        this.gameId = gameId;
+        this.newRecord = true;
+    }
+
+    @Override
+    public Long getId() {
+        return gameId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+}
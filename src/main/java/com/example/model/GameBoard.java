@@ -1,7 +1,13 @@
 package com.example.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,40 +15,68 @@ import java.util.List;
 @Entity
 @Table(name = "game_boards")
 public class GameBoard {
+    public static final int MAX_BOARDS_PER_GAME = 4;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Только клетки с кораблями и выстрелами, нетронутая вода не хранится.
+    // У игры до четырёх полей: два игровых и по одному у игроков — все грузятся одним запросом
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "game_board_id")
+    @BatchSize(size = MAX_BOARDS_PER_GAME)
     private List<Cell> cells = new ArrayList<>();
     
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "game_board_id")
+    @BatchSize(size = MAX_BOARDS_PER_GAME)
     private List<Ship> ships = new ArrayList<>();
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage")
+    private BoardStorage storage;
+    
+    // null — пустое поле без кораблей и выстрелов
+    @Column(name = "packed_state")
+    private byte[] packedState;
+    
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private BoardIndex index;
+    
     public GameBoard() {
-        initializeBoard();
+        this(BoardStorage.CELLS);
     }
     
-    private void initializeBoard() {
-        for (int x = 0; x < 10; x++) {
-            for (int y = 0; y < 10; y++) {
-                cells.add(new Cell(x, y));
-            }
-        }
+    /**
+     * Пустое поле ничего не выделяет: клетки появляются при расстановке и выстрелах,
+     * движок — при первом обращении. Этот же конструктор вызывает JPA перед загрузкой.
+     */
+    public GameBoard(BoardStorage storage) {
+        this.storage = storage;
     }
     
     public boolean placeShip(Ship ship) {
-        if (!isValidShipPlacement(ship)) {
+        BoardIndex index = index();
+        int shipId = index.engine.place(ship.getStartX(), ship.getStartY(), ship.isHorizontal(), ship.getSize());
+        if (shipId == 0) {
             return false;
         }
         
+        if (isPacked()) {
+            packedState = BoardCodec.encode(index.engine);
+            return true;
+        }
+        
         int x = ship.getStartX();
         int y = ship.getStartY();
         
         for (int i = 0; i < ship.getSize(); i++) {
-            Cell cell = getCell(x, y);
+            Cell cell = cellAt(BoardEngine.index(x, y));
             cell.setShip(ship);
             if (ship.isHorizontal()) {
                 x++;
@@ -52,54 +86,157 @@ public class GameBoard {
         }
         
         ships.add(ship);
+        index.ships[shipId] = ship;
         return true;
     }
     
-    private boolean isValidShipPlacement(Ship ship) {
-        int x = ship.getStartX();
-        int y = ship.getStartY();
-        
-        // Проверка границ
-        if (ship.isHorizontal()) {
-            if (x + ship.getSize() > 10) return false;
-        } else {
-            if (y + ship.getSize() > 10) return false;
+    public boolean isValidShipPlacement(Ship ship) {
+        return index().engine.canPlace(ship.getStartX(), ship.getStartY(), ship.isHorizontal(), ship.getSize());
+    }
+    
+    public ShotResult shoot(int x, int y) {
+        BoardIndex index = index();
+        ShotResult result = index.engine.shoot(x, y);
+        if (result == ShotResult.INVALID) {
+            return result;
         }
         
-        // Проверка соседних клеток
-        for (int i = -1; i <= ship.getSize(); i++) {
-            for (int j = -1; j <= 1; j++) {
-                int checkX = ship.isHorizontal() ? x + i : x + j;
-                int checkY = ship.isHorizontal() ? y + j : y + i;
-                
-                if (checkX >= 0 && checkX < 10 && checkY >= 0 && checkY < 10) {
-                    Cell cell = getCell(checkX, checkY);
-                    if (cell.getState() == Cell.CellState.SHIP) {
-                        return false;
-                    }
-                }
+        // Клетки и корабли JPA лишь отражают состояние движка для сохранения
+        int cellIndex = BoardEngine.index(x, y);
+        if (isPacked()) {
+            if (packedState == null) {
+                packedState = BoardCodec.encode(index.engine);
+            } else {
+                BoardCodec.markShot(packedState, cellIndex);
             }
+            return result;
         }
         
-        return true;
+        Cell cell = cellAt(cellIndex);
+        cell.hit();
+        if (result == ShotResult.SUNK) {
+            sinkShip(index.ships[index.engine.shipIdAt(cellIndex)]);
+        }
+        return result;
+    }
+    
+    public boolean canShoot(int x, int y) {
+        return index().engine.canShoot(x, y);
+    }
+    
+    public Cell.CellState getCellState(int x, int y) {
+        return index().engine.stateAt(BoardEngine.index(x, y));
+    }
+    
+    // Клетка по индексу; клетка воды, которой ещё нет в списке, создаётся и добавляется для сохранения
+    private Cell cellAt(int cellIndex) {
+        BoardIndex index = index();
+        Cell cell = index.cells[cellIndex];
+        if (cell == null) {
+            cell = new Cell(cellIndex / BoardEngine.SIZE, cellIndex % BoardEngine.SIZE);
+            cells.add(cell);
+            index.cells[cellIndex] = cell;
+        }
+        return cell;
+    }
+    
+    /**
+     * Поле строкой из 100 символов в порядке индексов BoardEngine, формат описан в GameView.
+     *
+     * @param revealShips показывать целые корабли — для владельца поля
+     */
+    public String render(boolean revealShips) {
+        return render(index().engine, revealShips);
     }
     
-    private Cell getCell(int x, int y) {
-        return cells.stream()
-                .filter(cell -> cell.getX() == x && cell.getY() == y)
-                .findFirst()
-                .orElse(null);
+    public static String render(BoardEngine engine, boolean revealShips) {
+        char[] symbols = new char[BoardEngine.CELLS];
+        for (int cell = 0; cell < BoardEngine.CELLS; cell++) {
+            if (engine.isHit(cell)) {
+                symbols[cell] = engine.isSunk(engine.shipIdAt(cell)) ? '#' : 'X';
+            } else if (engine.isMiss(cell)) {
+                symbols[cell] = 'O';
+            } else {
+                symbols[cell] = revealShips && engine.hasShip(cell) ? 'S' : '.';
+            }
+        }
+        return new String(symbols);
+    }
+    
+    public int countPlacedShips() {
+        return index().engine.getShipCount();
     }
     
     public boolean areAllShipsPlaced() {
-        return ships.size() == 10; // 10 кораблей в игре
+        return index().engine.getShipCount() == 10; // 10 кораблей в игре
     }
     
     public boolean areAllShipsSunk() {
-        return ships.stream().allMatch(Ship::isSunk);
+        return index().engine.allShipsSunk();
     }
     
     public void sinkShip(Ship ship) {
         ship.setSunk(true);
     }
-} 
\ No newline at end of file
+    
+    public boolean isPacked() {
+        return storage == BoardStorage.PACKED;
+    }
+    
+    /**
+     * Переводит поле в формат PACKED: состояние кодируется в packed_state,
+     * строки cells и ships удаляются через orphanRemoval при следующем flush.
+     */
+    public void convertToPacked() {
+        if (isPacked()) {
+            return;
+        }
+        packedState = BoardCodec.encode(index().engine);
+        storage = BoardStorage.PACKED;
+        cells.clear();
+        ships.clear();
+        index = null;
+    }
+    
+    private BoardIndex index() {
+        if (index == null) {
+            index = isPacked() ? new BoardIndex(BoardCodec.decode(packedState)) : BoardIndex.of(cells, ships);
+        }
+        return index;
+    }
+    
+    /**
+     * Движок поля и прямой доступ к клеткам/кораблям по индексу.
+     * Строится лениво из packed_state или из списков JPA, в том числе после загрузки из базы.
+     */
+    private static final class BoardIndex {
+        private final BoardEngine engine;
+        private final Cell[] cells = new Cell[BoardEngine.CELLS];
+        private final Ship[] ships = new Ship[BoardEngine.MAX_SHIPS + 1];
+        
+        private BoardIndex(BoardEngine engine) {
+            this.engine = engine;
+        }
+        
+        private static BoardIndex of(List<Cell> cells, List<Ship> ships) {
+            BoardIndex index = new BoardIndex(new BoardEngine());
+            for (Cell cell : cells) {
+                index.cells[BoardEngine.index(cell.getX(), cell.getY())] = cell;
+            }
+            for (Ship ship : ships) {
+                int shipId = index.engine.place(ship.getStartX(), ship.getStartY(), ship.isHorizontal(), ship.getSize());
+                // Сохранённый корабль пересекается или соприкасается с другим: поле испорчено, играть на нём нельзя
+                if (shipId == 0) {
+                    throw new IllegalStateException("Stored ship " + ship.getId() + " overlaps or touches another ship");
+                }
+                index.ships[shipId] = ship;
+            }
+            for (Cell cell : cells) {
+                if (cell.getState() == Cell.CellState.HIT || cell.getState() == Cell.CellState.MISS) {
+                    index.engine.shoot(cell.getX(), cell.getY());
+                }
+            }
+            return index;
+        }
+    }
+}
\ No newline at end of file
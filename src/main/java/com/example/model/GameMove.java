@@ -0,0 +1,92 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Строка журнала ходов. Ключ — (game_id, seq): он назначается приложением, поэтому вставки
+ * не ждут id от базы и отправляются пачками по hibernate.jdbc.batch_size.
+ */
+@Data
+@Entity
+@Table(name = "game_moves")
+@IdClass(GameMove.Key.class)
+public class GameMove implements Persistable<GameMove.Key> {
+    public enum MoveType {
+        PLACE_SHIP,
+        SHOT
+    }
+    
+    @Id
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+    
+    @Id
+    @Column(nullable = false)
+    private int seq;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MoveType type;
+    
+    @Column(nullable = false)
+    private short x;
+    
+    @Column(nullable = false)
+    private short y;
+    
+    // Для PLACE_SHIP — горизонтальность, для SHOT — стрелял ли первый игрок
+    @Column(nullable = false)
+    private boolean flag;
+    
+    // Размер корабля для PLACE_SHIP
+    @Column(nullable = false)
+    private short size;
+    
+    @Column(nullable = false)
+    private Instant createdAt;
+    
+    // Ключ назначается приложением, поэтому без этого флага save делал бы лишний select перед каждой вставкой
+    @Transient
+    private boolean newRecord;
+    
+    public GameMove() {}
+    
+    public GameMove(Long gameId, int seq, MoveType type, int x, int y, boolean flag, int size) {
+        this.gameId = gameId;
+        this.seq = seq;
+        this.type = type;
+        this.x = (short) x;
+        this.y = (short) y;
+        this.flag = flag;
+        this.size = (short) size;
+        this.createdAt = Instant.now();
+        this.newRecord = true;
+    }
+    
+    @Override
+    public Key getId() {
+        return new Key(gameId, seq);
+    }
+    
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private Long gameId;
+        private int seq;
+    }
+}
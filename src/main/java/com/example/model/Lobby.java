@@ -45,12 +45,4 @@ public class Lobby {
     public Map<Long, Player> getWaitingPlayers() {
         return waitingPlayers;
     }
-    
-    public Game findGameForPlayer(Player player) {
-        return activeGames.values().stream()
-            .filter(game -> game.getPlayer1().getId().equals(player.getId()) || 
-                          (game.getPlayer2() != null && game.getPlayer2().getId().equals(player.getId())))
-            .findFirst()
-            .orElse(null);
-    }
 } 
\ No newline at end of file
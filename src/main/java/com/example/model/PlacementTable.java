@@ -0,0 +1,172 @@
+package com.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Все допустимые расстановки одного корабля (размер 1..4, клетка, ориентация) с заранее
+ * посчитанными масками: тело корабля и тело вместе с ореолом в одну клетку.
+ * Маски в формате BoardEngine — две long на 100 клеток. Корабль можно поставить,
+ * если его ореол не пересекается с уже занятыми клетками.
+ * Возвращаемые массивы общие — изменять их нельзя.
+ */
+public final class PlacementTable {
+    public static final int MAX_SHIP_SIZE = 4;
+
+    private static final int SIZE = BoardEngine.SIZE;
+    private static final int CELLS = BoardEngine.CELLS;
+
+    private static final int COUNT;
+    private static final int[] SHIP_SIZE;
+    private static final int[] START;
+    private static final boolean[] HORIZONTAL;
+    private static final long[] BODY_LO;
+    private static final long[] BODY_HI;
+    private static final long[] HALO_LO;
+    private static final long[] HALO_HI;
+    // [размер][горизонтально ? 1 : 0][начальная клетка] -> номер расстановки или -1
+    private static final int[][][] LOOKUP;
+    private static final int[][] BY_SIZE;
+    // [клетка][размер] -> расстановки, проходящие через клетку
+    private static final int[][][] COVERING;
+
+    private PlacementTable() {
+    }
+
+    public static int count() {
+        return COUNT;
+    }
+
+    /**
+     * @return номер расстановки или -1, если корабль не помещается на поле
+     */
+    public static int id(int x, int y, boolean horizontal, int size) {
+        if (size < 1 || size > MAX_SHIP_SIZE || !BoardEngine.isInside(x, y)) {
+            return -1;
+        }
+        return LOOKUP[size][horizontal ? 1 : 0][BoardEngine.index(x, y)];
+    }
+
+    public static int size(int id) {
+        return SHIP_SIZE[id];
+    }
+
+    public static int startX(int id) {
+        return START[id] / SIZE;
+    }
+
+    public static int startY(int id) {
+        return START[id] % SIZE;
+    }
+
+    public static boolean isHorizontal(int id) {
+        return HORIZONTAL[id];
+    }
+
+    public static long bodyLo(int id) {
+        return BODY_LO[id];
+    }
+
+    public static long bodyHi(int id) {
+        return BODY_HI[id];
+    }
+
+    public static long haloLo(int id) {
+        return HALO_LO[id];
+    }
+
+    public static long haloHi(int id) {
+        return HALO_HI[id];
+    }
+
+    public static int[] ofSize(int size) {
+        return BY_SIZE[size];
+    }
+
+    public static int[] covering(int cell, int size) {
+        return COVERING[cell][size];
+    }
+
+    static {
+        int count = 0;
+        for (int size = 1; size <= MAX_SHIP_SIZE; size++) {
+            count += SIZE * (SIZE - size + 1) * (size == 1 ? 1 : 2);
+        }
+        COUNT = count;
+        SHIP_SIZE = new int[count];
+        START = new int[count];
+        HORIZONTAL = new boolean[count];
+        BODY_LO = new long[count];
+        BODY_HI = new long[count];
+        HALO_LO = new long[count];
+        HALO_HI = new long[count];
+        LOOKUP = new int[MAX_SHIP_SIZE + 1][2][CELLS];
+        BY_SIZE = new int[MAX_SHIP_SIZE + 1][];
+
+        int[][] coveringCounts = new int[CELLS][MAX_SHIP_SIZE + 1];
+        int id = 0;
+        for (int size = 1; size <= MAX_SHIP_SIZE; size++) {
+            int first = id;
+            Arrays.fill(LOOKUP[size][0], -1);
+            Arrays.fill(LOOKUP[size][1], -1);
+            // Для однопалубного корабля ориентация не важна — одна расстановка на клетку
+            for (int horizontal = 0; horizontal <= (size == 1 ? 0 : 1); horizontal++) {
+                for (int x = 0; x < SIZE; x++) {
+                    for (int y = 0; y < SIZE; y++) {
+                        int endX = horizontal == 1 ? x + size - 1 : x;
+                        int endY = horizontal == 1 ? y : y + size - 1;
+                        if (endX >= SIZE || endY >= SIZE) {
+                            continue;
+                        }
+                        SHIP_SIZE[id] = size;
+                        START[id] = BoardEngine.index(x, y);
+                        HORIZONTAL[id] = horizontal == 1;
+                        LOOKUP[size][horizontal][START[id]] = id;
+                        if (size == 1) {
+                            LOOKUP[size][1][START[id]] = id;
+                        }
+                        for (int cx = Math.max(0, x - 1); cx <= Math.min(SIZE - 1, endX + 1); cx++) {
+                            for (int cy = Math.max(0, y - 1); cy <= Math.min(SIZE - 1, endY + 1); cy++) {
+                                int cell = BoardEngine.index(cx, cy);
+                                boolean body = cx >= x && cx <= endX && cy >= y && cy <= endY;
+                                if (cell < 64) {
+                                    HALO_LO[id] |= 1L << cell;
+                                    if (body) {
+                                        BODY_LO[id] |= 1L << cell;
+                                    }
+                                } else {
+                                    HALO_HI[id] |= 1L << (cell - 64);
+                                    if (body) {
+                                        BODY_HI[id] |= 1L << (cell - 64);
+                                    }
+                                }
+                                if (body) {
+                                    coveringCounts[cell][size]++;
+                                }
+                            }
+                        }
+                        id++;
+                    }
+                }
+            }
+            BY_SIZE[size] = new int[id - first];
+            for (int i = first; i < id; i++) {
+                BY_SIZE[size][i - first] = i;
+            }
+        }
+
+        COVERING = new int[CELLS][MAX_SHIP_SIZE + 1][];
+        for (int cell = 0; cell < CELLS; cell++) {
+            for (int size = 1; size <= MAX_SHIP_SIZE; size++) {
+                COVERING[cell][size] = new int[coveringCounts[cell][size]];
+                coveringCounts[cell][size] = 0;
+            }
+        }
+        for (int placement = 0; placement < count; placement++) {
+            int size = SHIP_SIZE[placement];
+            int step = HORIZONTAL[placement] ? SIZE : 1;
+            for (int i = 0, cell = START[placement]; i < size; i++, cell += step) {
+                COVERING[cell][size][coveringCounts[cell][size]++] = placement;
+            }
+        }
+    }
+}
@@ -17,6 +17,8 @@ public class Player {
     @Column(nullable = false)
     private boolean ready;
 
+    // В игре не используется: поля игроков — Game.playerBoard и Game.aiBoard. Новым игрокам не создаётся,
+    // остаётся только у игроков, сохранённых раньше
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "game_board_id")
     private GameBoard gameBoard;
@@ -27,12 +29,19 @@ public class Player {
 
     public Player() {
         this.ready = false;
-        this.gameBoard = new GameBoard();
     }
 
     public Player(String username) {
         this.username = username;
         this.ready = false;
-        this.gameBoard = new GameBoard();
+    }
+
+    public Player(User user) {
+        this(user.getUsername());
+        this.user = user;
+    }
+
+    public boolean belongsTo(Long userId) {
+        return userId != null && user != null && userId.equals(user.getId());
     }
 } 
\ No newline at end of file
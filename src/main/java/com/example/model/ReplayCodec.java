@@ -0,0 +1,92 @@
+package com.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Двоичный формат записи законченной партии для колонки game_archives.replay:
+ * <pre>
+ * [версия][флаги][длина][playerBoard в BoardCodec][длина][aiBoard в BoardCodec][выстрелы по порядку]
+ * </pre>
+ * Выстрел — байт: номер клетки, старший бит — стреляли по playerBoard. Если порядок выстрелов
+ * неизвестен (партия начата до появления журнала выстрелов), флаг ORDERED снят и выстрелов нет:
+ * итог партии всё равно виден по маскам выстрелов полей. Партия целиком занимает до ~270 байт.
+ */
+public final class ReplayCodec {
+    private static final byte VERSION = 1;
+    private static final int ORDERED = 1;
+    private static final int AT_PLAYER_BOARD = 0x80;
+    private static final int CELL_MASK = 0x7F;
+
+    /**
+     * Расшифрованная запись: поля в конце партии и выстрелы по порядку или null.
+     */
+    public record Replay(BoardEngine playerBoard, BoardEngine aiBoard, byte[] shots) {
+        public int shotCell(int i) {
+            return shots[i] & CELL_MASK;
+        }
+
+        public boolean isShotAtPlayerBoard(int i) {
+            return (shots[i] & AT_PLAYER_BOARD) != 0;
+        }
+    }
+
+    private ReplayCodec() {
+    }
+
+    /**
+     * Дописывает выстрел в журнал выстрелов игры.
+     *
+     * @param log журнал или null, если выстрелов ещё не было
+     */
+    public static byte[] appendShot(byte[] log, int cell, boolean atPlayerBoard) {
+        byte[] result = log == null ? new byte[1] : Arrays.copyOf(log, log.length + 1);
+        result[result.length - 1] = (byte) (cell | (atPlayerBoard ? AT_PLAYER_BOARD : 0));
+        return result;
+    }
+
+    public static byte[] encode(BoardEngine playerBoard, BoardEngine aiBoard, byte[] shotLog) {
+        byte[] player = BoardCodec.encode(playerBoard);
+        byte[] ai = BoardCodec.encode(aiBoard);
+        // Журнал неполон, если партия начата раньше, чем игры стали его вести
+        boolean ordered = shotLog != null && shotLog.length == countShots(playerBoard) + countShots(aiBoard);
+        int shots = ordered ? shotLog.length : 0;
+
+        byte[] data = new byte[4 + player.length + ai.length + shots];
+        data[0] = VERSION;
+        data[1] = (byte) (ordered ? ORDERED : 0);
+        data[2] = (byte) player.length;
+        System.arraycopy(player, 0, data, 3, player.length);
+        int offset = 3 + player.length;
+        data[offset] = (byte) ai.length;
+        System.arraycopy(ai, 0, data, offset + 1, ai.length);
+        if (ordered) {
+            System.arraycopy(shotLog, 0, data, offset + 1 + ai.length, shots);
+        }
+        return data;
+    }
+
+    public static Replay decode(byte[] data) {
+        if (data[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported replay encoding version: " + data[0]);
+        }
+        int playerLength = data[2] & 0xFF;
+        BoardEngine playerBoard = BoardCodec.decode(Arrays.copyOfRange(data, 3, 3 + playerLength));
+        int offset = 3 + playerLength;
+        int aiLength = data[offset] & 0xFF;
+        BoardEngine aiBoard = BoardCodec.decode(Arrays.copyOfRange(data, offset + 1, offset + 1 + aiLength));
+        byte[] shots = (data[1] & ORDERED) != 0
+                ? Arrays.copyOfRange(data, offset + 1 + aiLength, data.length)
+                : null;
+        return new Replay(playerBoard, aiBoard, shots);
+    }
+
+    private static int countShots(BoardEngine engine) {
+        int shots = 0;
+        for (int cell = 0; cell < BoardEngine.CELLS; cell++) {
+            if (engine.isShot(cell)) {
+                shots++;
+            }
+        }
+        return shots;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,7 +32,9 @@ public class Ship {
     @Column(nullable = false)
     private boolean sunk;
     
+    // Клетки всех кораблей игры одним запросом
     @OneToMany(mappedBy = "ship", cascade = CascadeType.ALL)
+    @BatchSize(size = GameBoard.MAX_BOARDS_PER_GAME * BoardEngine.MAX_SHIPS)
     private List<Cell> cells = new ArrayList<>();
     
     public Ship() {
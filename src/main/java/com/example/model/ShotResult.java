@@ -0,0 +1,8 @@
+package com.example.model;
+
+public enum ShotResult {
+    INVALID,
+    MISS,
+    HIT,
+    SUNK
+}
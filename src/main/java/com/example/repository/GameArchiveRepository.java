@@ -0,0 +1,49 @@
+package com.example.repository;
+
+import com.example.model.Difficulty;
+import com.example.model.Game;
+import com.example.model.GameArchive;
+import com.example.model.GameType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface GameArchiveRepository extends JpaRepository<GameArchive, Long> {
+    // Выгрузка архива: страница после afterId (keyset по game_id), проекцией — без сущностей в контексте
+    @Query("select a.gameId as gameId, a.type as type, a.difficulty as difficulty, a.endReason as endReason, " +
+           "a.player1Name as player1Name, a.player2Name as player2Name, a.winner as winner, " +
+           "a.createdAt as createdAt, a.endedAt as endedAt, a.replay as replay " +
+           "from GameArchive a where a.gameId > :afterId and a.createdAt >= :from and a.createdAt < :to " +
+           "order by a.gameId")
+    List<ArchivedGame> findExportPage(@Param("afterId") long afterId,
+                                      @Param("from") Instant from, @Param("to") Instant to,
+                                      Pageable pageable);
+    
+    interface ArchivedGame {
+        Long getGameId();
+        
+        GameType getType();
+        
+        Difficulty getDifficulty();
+        
+        Game.EndReason getEndReason();
+        
+        String getPlayer1Name();
+        
+        String getPlayer2Name();
+        
+        Integer getWinner();
+        
+        Instant getCreatedAt();
+        
+        Instant getEndedAt();
+        
+        byte[] getReplay();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.repository;
+
+import com.example.model.BoardStorage;
+import com.example.model.Cell;
+import com.example.model.GameBoard;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GameBoardRepository extends JpaRepository<GameBoard, Long> {
+    List<GameBoard> findByStorageIsNullOrStorage(BoardStorage storage, Pageable pageable);
+    
+    // Содержимое полей без загрузки сущностей — для архива партий
+    @Query("select b.id as boardId, b.storage as storage, b.packedState as packedState " +
+           "from GameBoard b where b.id in :boardIds")
+    List<BoardContent> findContentByIds(@Param("boardIds") Collection<Long> boardIds);
+    
+    @Query("select b.id as boardId, s.startX as startX, s.startY as startY, s.horizontal as horizontal, s.size as size " +
+           "from GameBoard b join b.ships s where b.id in :boardIds order by s.id")
+    List<BoardShip> findShipsByBoardIds(@Param("boardIds") Collection<Long> boardIds);
+    
+    @Query("select b.id as boardId, c.x as x, c.y as y " +
+           "from GameBoard b join b.cells c where b.id in :boardIds and c.state in :states")
+    List<BoardCell> findCellsByBoardIds(@Param("boardIds") Collection<Long> boardIds,
+                                        @Param("states") Collection<Cell.CellState> states);
+    
+    // Клетки и корабли привязаны к полю только колонкой game_board_id, поэтому удаляются SQL
+    @Modifying
+    @Query(value = "delete from cells where game_board_id in (:boardIds)", nativeQuery = true)
+    int deleteCellsByBoardIds(@Param("boardIds") Collection<Long> boardIds);
+    
+    @Modifying
+    @Query(value = "delete from ships where game_board_id in (:boardIds)", nativeQuery = true)
+    int deleteShipsByBoardIds(@Param("boardIds") Collection<Long> boardIds);
+    
+    interface BoardContent {
+        Long getBoardId();
+        
+        BoardStorage getStorage();
+        
+        byte[] getPackedState();
+    }
+    
+    interface BoardShip {
+        Long getBoardId();
+        
+        int getStartX();
+        
+        int getStartY();
+        
+        boolean getHorizontal();
+        
+        int getSize();
+    }
+    
+    interface BoardCell {
+        Long getBoardId();
+        
+        int getX();
+        
+        int getY();
+    }
+}
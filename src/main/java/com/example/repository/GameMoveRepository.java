@@ -0,0 +1,27 @@
+package com.example.repository;
+
+import com.example.model.Game;
+import com.example.model.GameMove;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GameMoveRepository extends JpaRepository<GameMove, GameMove.Key> {
+    List<GameMove> findByGameIdAndSeqGreaterThanOrderBySeq(Long gameId, int seq);
+    
+    List<GameMove> findByGameIdOrderBySeq(Long gameId);
+    
+    @Query("select distinct m.gameId from GameMove m, Game g " +
+           "where g.id = m.gameId and m.seq > g.journalSeq and g.state <> :finished")
+    List<Long> findGameIdsWithUnappliedMoves(@Param("finished") Game.GameState finished);
+    
+    @Modifying
+    @Query("delete from GameMove m where m.gameId in :gameIds")
+    int deleteByGameIds(@Param("gameIds") Collection<Long> gameIds);
+}
@@ -1,9 +1,148 @@
 package com.example.repository;
 
+import com.example.model.Difficulty;
 import com.example.model.Game;
+import com.example.model.GameType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
-} 
\ No newline at end of file
+    // Игра целиком для реестра: без графа каждое поле, его клетки и корабли грузились отдельными запросами
+    @EntityGraph(Game.AGGREGATE_GRAPH)
+    @Query("select g from Game g where g.id = :id")
+    Optional<Game> findAggregateById(@Param("id") Long id);
+    
+    // Только ревизия, без загрузки полей — для ETag
+    @Query("select g.revision from Game g where g.id = :id")
+    Optional<Long> findRevisionById(@Param("id") Long id);
+    
+    // Место пользователя в игре (1, 2 или 0 — не участник) без загрузки полей — для ETag вида игры
+    @Query("select case when g.player1.user.id = :userId then 1 when p2.user.id = :userId then 2 else 0 end " +
+           "from Game g left join g.player2 p2 where g.id = :id")
+    Optional<Integer> findSeatById(@Param("id") Long id, @Param("userId") Long userId);
+    
+    // Только состояние, без загрузки полей — для статуса выгруженной игры
+    @Query("select g.state from Game g where g.id = :id")
+    Optional<Game.GameState> findStateById(@Param("id") Long id);
+    
+    // Незаконченные игры по возрастанию id, начиная после afterId — для сроков и индексов лобби при старте
+    @Query("select g.id as id, g.state as state, g.type as type, g.difficulty as difficulty, " +
+           "p1.id as player1Id, p1.username as player1Name, g.player2.id as player2Id, " +
+           "g.createdAt as createdAt, g.lastActivityAt as lastActivityAt " +
+           "from Game g left join g.player1 p1 " +
+           "where g.state <> :finished and g.id > :afterId order by g.id")
+    List<GameActivity> findUnfinishedAfter(@Param("finished") Game.GameState finished,
+                                           @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("select g.id from Game g where g.endReason = :reason and g.endedAt < :before order by g.id")
+    List<Long> findIdsEndedBefore(@Param("reason") Game.EndReason reason,
+                                  @Param("before") Instant before, Pageable pageable);
+    
+    // Законченные партии для архива; брошенные до начала (EXPIRED) не архивируются, а удаляются.
+    // У игр, законченных до появления ended_at, время окончания неизвестно — они архивируются сразу
+    @Query("select g.id from Game g where g.state = :finished " +
+           "and (g.endReason is null or g.endReason <> :expired) " +
+           "and (g.endedAt is null or g.endedAt < :before) order by g.id")
+    List<Long> findIdsToArchive(@Param("finished") Game.GameState finished,
+                                @Param("expired") Game.EndReason expired,
+                                @Param("before") Instant before, Pageable pageable);
+    
+    @Query("select g.id as id, g.state as state, g.type as type, g.difficulty as difficulty, g.endReason as endReason, " +
+           "g.isPlayerTurn as playerTurn, g.createdAt as createdAt, g.endedAt as endedAt, g.shotLog as shotLog, " +
+           "p1.username as player1Name, p2.username as player2Name, " +
+           "g.playerBoard.id as playerBoardId, g.aiBoard.id as aiBoardId " +
+           "from Game g left join g.player1 p1 left join g.player2 p2 where g.id in :ids")
+    List<GameArchiveSource> findArchiveSources(@Param("ids") Collection<Long> ids);
+    
+    // Выгрузка игр: страница после afterId (keyset по id), проекцией — без сущностей в контексте
+    @Query("select g.id as id, g.state as state, g.type as type, g.difficulty as difficulty, g.endReason as endReason, " +
+           "g.isPlayerTurn as playerTurn, g.createdAt as createdAt, g.endedAt as endedAt, g.shotLog as shotLog, " +
+           "p1.username as player1Name, p2.username as player2Name, " +
+           "g.playerBoard.id as playerBoardId, g.aiBoard.id as aiBoardId " +
+           "from Game g left join g.player1 p1 left join g.player2 p2 " +
+           "where g.id > :afterId and g.state in :states and g.createdAt >= :from and g.createdAt < :to " +
+           "order by g.id")
+    List<GameArchiveSource> findExportPage(@Param("afterId") long afterId,
+                                           @Param("states") Collection<Game.GameState> states,
+                                           @Param("from") Instant from, @Param("to") Instant to,
+                                           Pageable pageable);
+    
+    // Игроки и поля, принадлежащие играм, — для удаления пачкой
+    @Query("select g.playerBoard.id as playerBoardId, g.aiBoard.id as aiBoardId, " +
+           "p1.id as player1Id, p1.gameBoard.id as player1BoardId, " +
+           "p2.id as player2Id, p2.gameBoard.id as player2BoardId " +
+           "from Game g left join g.player1 p1 left join g.player2 p2 where g.id in :ids")
+    List<GameOwnedIds> findOwnedIds(@Param("ids") Collection<Long> ids);
+    
+    interface GameActivity {
+        Long getId();
+        
+        Game.GameState getState();
+        
+        GameType getType();
+        
+        Difficulty getDifficulty();
+        
+        Long getPlayer1Id();
+        
+        String getPlayer1Name();
+        
+        Long getPlayer2Id();
+        
+        Instant getCreatedAt();
+        
+        Instant getLastActivityAt();
+    }
+    
+    interface GameArchiveSource {
+        Long getId();
+        
+        Game.GameState getState();
+        
+        GameType getType();
+        
+        Difficulty getDifficulty();
+        
+        Game.EndReason getEndReason();
+        
+        boolean getPlayerTurn();
+        
+        Instant getCreatedAt();
+        
+        Instant getEndedAt();
+        
+        byte[] getShotLog();
+        
+        String getPlayer1Name();
+        
+        String getPlayer2Name();
+        
+        Long getPlayerBoardId();
+        
+        Long getAiBoardId();
+    }
+    
+    interface GameOwnedIds {
+        Long getPlayerBoardId();
+        
+        Long getAiBoardId();
+        
+        Long getPlayer1Id();
+        
+        Long getPlayer1BoardId();
+        
+        Long getPlayer2Id();
+        
+        Long getPlayer2BoardId();
+    }
+}
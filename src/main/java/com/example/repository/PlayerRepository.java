@@ -2,8 +2,15 @@ package com.example.repository;
 
 import com.example.model.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PlayerRepository extends JpaRepository<Player, Long> {
-} 
\ No newline at end of file
+    @Query("select p.gameBoard.id from Player p where p.id in :ids and p.gameBoard is not null")
+    List<Long> findBoardIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,13 +1,27 @@
 package com.example.repository;
 
 import com.example.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
-} 
\ No newline at end of file
+    
+    // Только имена по возрастанию id, начиная после afterId — для фильтра имён при старте
+    @Query("select u.id as id, u.username as username from User u where u.id > :afterId order by u.id")
+    List<UserName> findUsernamesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    interface UserName {
+        Long getId();
+        
+        String getUsername();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.example.scheduling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Хешированное колесо таймеров: по одному сроку на ключ, постановка, перестановка и отмена за O(1).
+ * Срок округляется вверх до тика и попадает в корзину номер тика по модулю размера колеса;
+ * таймер со сроком дальше одного оборота лежит в той же корзине и пропускается, пока не наступит его оборот.
+ * Колесо не держит своих потоков — его проворачивает вызов advance по таймеру.
+ * schedule и cancel не берут блокировок: они пишут срок в общую таблицу и кладут ключ в очередь,
+ * а корзины перестраивает только advance, разобрав очередь перед проворотом.
+ */
+public final class TimingWheel<K> {
+    private final long tickMs;
+    private final int mask;
+    private final Node<K>[] buckets;
+    // Актуальные сроки в миллисекундах; корзины догоняют их в advance
+    private final Map<K, Long> deadlines = new ConcurrentHashMap<>();
+    private final Queue<K> changed = new ConcurrentLinkedQueue<>();
+    // Узлы и корзины трогает только advance
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    // Последний обработанный тик
+    private long currentTick;
+
+    /**
+     * @param wheelSize число корзин, округляется вверх до степени двойки
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMs, int wheelSize, long nowMs) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMs = tickMs;
+        this.mask = size - 1;
+        this.buckets = (Node<K>[]) new Node[size];
+        this.currentTick = nowMs / tickMs;
+    }
+
+    /**
+     * Ставит таймер ключа на срок deadlineMs, заменяя прежний. Просроченный срок сработает на ближайшем тике.
+     */
+    public void schedule(K key, long deadlineMs) {
+        Long previous = deadlines.put(key, deadlineMs);
+        if (previous == null || previous != deadlineMs) {
+            changed.add(key);
+        }
+    }
+
+    public boolean cancel(K key) {
+        if (deadlines.remove(key) == null) {
+            return false;
+        }
+        changed.add(key);
+        return true;
+    }
+
+    public boolean isScheduled(K key) {
+        return deadlines.containsKey(key);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Проворачивает колесо до момента nowMs и снимает сработавшие таймеры.
+     * Если сработавших больше limit, остальные остаются в колесе и вернутся следующим вызовом.
+     *
+     * @return ключи сработавших таймеров
+     */
+    public synchronized List<K> advance(long nowMs, int limit) {
+        applyChanges();
+        List<K> expired = new ArrayList<>();
+        long nowTick = nowMs / tickMs;
+        // После долгой паузы достаточно одного оборота: каждая корзина просматривается один раз
+        long lastTick = Math.min(nowTick, currentTick + buckets.length);
+        for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+            int bucket = (int) (tick & mask);
+            Node<K> node = buckets[bucket];
+            while (node != null) {
+                Node<K> next = node.next;
+                if (node.deadlineTick <= nowTick) {
+                    if (expired.size() == limit) {
+                        // Корзина разобрана не до конца: начнём следующий вызов с неё
+                        currentTick = tick - 1;
+                        return expired;
+                    }
+                    unlink(node);
+                    nodes.remove(node.key);
+                    // Срок могли переставить или отменить после разбора очереди — тогда ключ уже снова в ней
+                    if (deadlines.remove(node.key, node.deadlineMs)) {
+                        expired.add(node.key);
+                    }
+                }
+                node = next;
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        return expired;
+    }
+
+    private void applyChanges() {
+        K key;
+        while ((key = changed.poll()) != null) {
+            Long deadlineMs = deadlines.get(key);
+            Node<K> node = nodes.get(key);
+            if (node != null) {
+                unlink(node);
+            }
+            if (deadlineMs == null) {
+                nodes.remove(key);
+                continue;
+            }
+            if (node == null) {
+                node = new Node<>(key);
+                nodes.put(key, node);
+            }
+            node.deadlineMs = deadlineMs;
+            node.deadlineTick = Math.max(currentTick + 1, (deadlineMs + tickMs - 1) / tickMs);
+            link(node);
+        }
+    }
+
+    private void link(Node<K> node) {
+        int bucket = (int) (node.deadlineTick & mask);
+        node.bucket = bucket;
+        node.prev = null;
+        node.next = buckets[bucket];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        buckets[bucket] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            buckets[node.bucket] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static final class Node<K> {
+        private final K key;
+        private long deadlineMs;
+        private long deadlineTick;
+        private int bucket;
+        private Node<K> prev;
+        private Node<K> next;
+
+        private Node(K key) {
+            this.key = key;
+        }
+    }
+}
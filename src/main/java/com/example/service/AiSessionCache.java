@@ -0,0 +1,132 @@
+package com.example.service;
+
+import com.example.ai.AiStateCodec;
+import com.example.ai.BattleshipAI;
+import com.example.ai.MonteCarloTargeting;
+import com.example.metrics.MetricsRegistry;
+import com.example.model.Game;
+import com.example.model.ShotResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Кэш ИИ одиночных игр по id игры. Размер ограничен: сверх max-size вытесняется десятая часть
+ * давно не использованных ИИ; неактивные ИИ выгружаются по таймеру. Общей блокировки нет:
+ * восстановление ИИ одной игры не задерживает ходы ИИ в других играх. После каждого выстрела ИИ его состояние пишется в
+ * Game.aiState и сохраняется вместе с игрой, поэтому выгрузка ничего не теряет:
+ * при следующем обращении ИИ восстанавливается из игры.
+ * Вызывается под блокировкой игры в GameRegistry, так что один ИИ не используется из двух потоков.
+ */
+@Component
+public class AiSessionCache {
+    @Autowired
+    private MonteCarloTargeting.Settings monteCarloSettings;
+
+    @Autowired
+    private ForkJoinPool aiPool;
+
+    @Autowired
+    private MetricsRegistry metrics;
+
+    @Value("${game.ai.cache.idle-timeout-ms:600000}")
+    private long idleTimeoutMs;
+
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final int maxSize;
+
+    public AiSessionCache(@Value("${game.ai.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public BattleshipAI get(Game game) {
+        Session session = sessions.get(game.getId());
+        if (session == null || session.ai.getDifficulty() != game.getDifficulty()) {
+            // ИИ собирается без блокировок; если другой поток успел раньше, берётся его ИИ
+            Session restored = new Session(restore(game));
+            Session current = session == null
+                    ? sessions.putIfAbsent(game.getId(), restored)
+                    : sessions.replace(game.getId(), session, restored) ? null : sessions.get(game.getId());
+            session = current != null ? current : restored;
+            if (sessions.size() > maxSize) {
+                trim();
+            }
+        }
+        session.lastAccess = System.currentTimeMillis();
+        return session.ai;
+    }
+
+    /**
+     * Расставляет флот ИИ на aiBoard новой игры; сам ИИ в кэш не попадает — у игры ещё нет id.
+     */
+    public void placeShips(Game game) {
+        BattleshipAI ai = newAi(game);
+        long start = System.nanoTime();
+        ai.placeShips(game.getAiBoard());
+        metrics.recordSince("ai.place_ships", start);
+    }
+
+    /**
+     * Сообщает ИИ результат его выстрела и обновляет сохраняемое состояние в игре.
+     */
+    public void recordShot(Game game, int x, int y, ShotResult result) {
+        BattleshipAI ai = get(game);
+        ai.updateStrategy(x, y, result != ShotResult.MISS, result == ShotResult.SUNK);
+        game.setAiState(AiStateCodec.encode(ai));
+    }
+
+    public void remove(Long gameId) {
+        sessions.remove(gameId);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    @Scheduled(fixedDelayString = "${game.ai.cache.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - idleTimeoutMs;
+        sessions.values().removeIf(session -> session.lastAccess < idleBefore);
+    }
+
+    // Вытесняет десятую часть давно не использованных ИИ; обходом занят один поток, остальные не ждут
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long[] accesses = sessions.values().stream().mapToLong(session -> session.lastAccess).sorted().toArray();
+            int evict = accesses.length - maxSize + maxSize / 10;
+            if (evict > 0) {
+                long oldest = accesses[Math.min(evict, accesses.length) - 1];
+                sessions.values().removeIf(session -> session.lastAccess <= oldest);
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private BattleshipAI restore(Game game) {
+        return AiStateCodec.restore(newAi(game), game.getAiState());
+    }
+
+    private BattleshipAI newAi(Game game) {
+        return new BattleshipAI(game.getDifficulty(), new Random(), monteCarloSettings, aiPool);
+    }
+
+    private static final class Session {
+        private final BattleshipAI ai;
+        private volatile long lastAccess;
+
+        private Session(BattleshipAI ai) {
+            this.ai = ai;
+        }
+    }
+}
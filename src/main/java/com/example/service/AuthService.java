@@ -1,11 +1,18 @@
 package com.example.service;
 
+import com.example.dto.AuthResponse;
+import com.example.metrics.MetricsRegistry;
 import com.example.model.User;
 import com.example.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class AuthService {
@@ -15,24 +22,80 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
-    @Transactional
-    public User register(String username, String password) {
-        if (userRepository.findByUsername(username).isPresent()) {
+    @Autowired
+    private SessionTokenService sessionTokenService;
+    
+    @Autowired
+    private UsernameFilter usernameFilter;
+    
+    @Autowired
+    private MetricsRegistry metrics;
+    
+    // BCrypt считается только здесь, при регистрации и входе; дальше клиент предъявляет токен
+    @Autowired
+    private ExecutorService passwordHashingExecutor;
+    
+    // Всё, кроме самого BCrypt, — запись в базу и выдача токена — идёт здесь и не занимает пул хэширования
+    private final ExecutorService accountExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    
+    // Для свободного имени — без запроса к базе, для возможно занятого — один exists
+    public boolean isUsernameAvailable(String username) {
+        return !usernameFilter.mightExist(username) || !userRepository.existsByUsername(username);
+    }
+    
+    public CompletableFuture<AuthResponse> register(String username, String password) {
+        if (!isUsernameAvailable(username)) {
             throw new RuntimeException("Username already exists");
         }
         
-        User user = new User(username, passwordEncoder.encode(password), 1L);
-        return userRepository.save(user);
+        return CompletableFuture.supplyAsync(() -> encode(password), passwordHashingExecutor)
+                .thenApplyAsync(hash -> {
+                    User user;
+                    try {
+                        user = userRepository.save(new User(username, hash, 1L));
+                    } catch (DataIntegrityViolationException e) {
+                        // Имя заняли между проверкой и вставкой — здесь или на другом узле
+                        throw new RuntimeException("Username already exists");
+                    }
+                    usernameFilter.add(username);
+                    return issueToken(user);
+                }, accountExecutor);
     }
     
-    public User login(String username, String password) {
+    public CompletableFuture<AuthResponse> login(String username, String password) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
                 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new RuntimeException("Invalid password");
-        }
-        
-        return user;
+        return CompletableFuture.supplyAsync(() -> matches(password, user.getPassword()), passwordHashingExecutor)
+                .thenApplyAsync(matches -> {
+                    if (!matches) {
+                        throw new RuntimeException("Invalid password");
+                    }
+                    return issueToken(user);
+                }, accountExecutor);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        accountExecutor.shutdown();
+    }
+    
+    private String encode(String password) {
+        long start = System.nanoTime();
+        String hash = passwordEncoder.encode(password);
+        metrics.recordSince("auth.bcrypt_encode", start);
+        return hash;
+    }
+    
+    private boolean matches(String password, String hash) {
+        long start = System.nanoTime();
+        boolean matches = passwordEncoder.matches(password, hash);
+        metrics.recordSince("auth.bcrypt_matches", start);
+        return matches;
+    }
+    
+    private AuthResponse issueToken(User user) {
+        return new AuthResponse(sessionTokenService.issue(user.getId(), user.getUsername()),
+                user.getUsername(), user.getId(), user.getAvatarId());
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
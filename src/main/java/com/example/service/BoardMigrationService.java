@@ -0,0 +1,32 @@
+package com.example.service;
+
+import com.example.model.BoardStorage;
+import com.example.model.GameBoard;
+import com.example.repository.GameBoardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class BoardMigrationService {
+    @Autowired
+    private GameBoardRepository gameBoardRepository;
+    
+    /**
+     * Переводит очередную пачку полей из строк cells/ships в колонку packed_state.
+     *
+     * @return сколько полей переведено; 0 — переводить больше нечего
+     */
+    @Transactional
+    public int migrateBatch(int batchSize) {
+        List<GameBoard> boards = gameBoardRepository.findByStorageIsNullOrStorage(
+                BoardStorage.CELLS, PageRequest.of(0, batchSize));
+        for (GameBoard board : boards) {
+            board.convertToPacked();
+        }
+        return boards.size();
+    }
+}
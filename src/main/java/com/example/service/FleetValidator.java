@@ -0,0 +1,86 @@
+package com.example.service;
+
+import com.example.dto.FleetPlacementResponse.ShipError;
+import com.example.dto.ShipPlacement;
+import com.example.model.BoardEngine;
+import com.example.model.PlacementTable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Проверка флота целиком на пустом поле: каждый корабль в пределах поля и не касается
+ * предыдущих, а состав флота — 1x4, 2x3, 3x2, 4x1. Собираются все ошибки сразу.
+ */
+@Component
+public class FleetValidator {
+    private static final int MAX_SHIP_SIZE = PlacementTable.MAX_SHIP_SIZE;
+
+    public List<ShipError> validate(List<ShipPlacement> ships) {
+        List<ShipError> errors = new ArrayList<>();
+        if (ships == null || ships.isEmpty()) {
+            errors.add(new ShipError(null, "Fleet is empty"));
+            return errors;
+        }
+
+        BoardEngine engine = new BoardEngine();
+        // Номер корабля в движке -> номер в запросе
+        int[] requestIndex = new int[BoardEngine.MAX_SHIPS + 1];
+        int[] counts = new int[MAX_SHIP_SIZE + 1];
+        for (int i = 0; i < ships.size(); i++) {
+            ShipPlacement ship = ships.get(i);
+            if (ship == null) {
+                errors.add(new ShipError(i, "Ship is missing"));
+                continue;
+            }
+            if (ship.getSize() < 1 || ship.getSize() > MAX_SHIP_SIZE) {
+                errors.add(new ShipError(i, "Ship size must be between 1 and " + MAX_SHIP_SIZE));
+                continue;
+            }
+            counts[ship.getSize()]++;
+
+            int placementId = PlacementTable.id(ship.getX(), ship.getY(), ship.isHorizontal(), ship.getSize());
+            if (placementId < 0) {
+                errors.add(new ShipError(i, "Ship does not fit on the board"));
+                continue;
+            }
+            int conflict = findConflict(engine, placementId);
+            if (conflict > 0) {
+                errors.add(new ShipError(i, "Ship touches or overlaps ship " + requestIndex[conflict]));
+                continue;
+            }
+            int shipId = engine.place(ship.getX(), ship.getY(), ship.isHorizontal(), ship.getSize());
+            if (shipId == 0) {
+                errors.add(new ShipError(i, "Too many ships"));
+                continue;
+            }
+            requestIndex[shipId] = i;
+        }
+
+        for (int size = MAX_SHIP_SIZE; size >= 1; size--) {
+            int expected = MAX_SHIP_SIZE + 1 - size;
+            if (counts[size] != expected) {
+                errors.add(new ShipError(null, "Expected " + expected + " ships of size " + size + ", got " + counts[size]));
+            }
+        }
+        return errors;
+    }
+
+    // Номер уже поставленного корабля в ореоле расстановки или 0
+    private static int findConflict(BoardEngine engine, int placementId) {
+        for (long bits = PlacementTable.haloLo(placementId); bits != 0; bits &= bits - 1) {
+            int shipId = engine.shipIdAt(Long.numberOfTrailingZeros(bits));
+            if (shipId != 0) {
+                return shipId;
+            }
+        }
+        for (long bits = PlacementTable.haloHi(placementId); bits != 0; bits &= bits - 1) {
+            int shipId = engine.shipIdAt(64 + Long.numberOfTrailingZeros(bits));
+            if (shipId != 0) {
+                return shipId;
+            }
+        }
+        return 0;
+    }
+}
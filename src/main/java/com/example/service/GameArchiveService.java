@@ -0,0 +1,182 @@
+package com.example.service;
+
+import com.example.dto.GameReplay;
+import com.example.dto.ShipPlacement;
+import com.example.model.BoardCodec;
+import com.example.model.BoardEngine;
+import com.example.model.BoardStorage;
+import com.example.model.Cell;
+import com.example.model.Game;
+import com.example.model.GameArchive;
+import com.example.model.GameBoard;
+import com.example.model.ReplayCodec;
+import com.example.repository.GameArchiveRepository;
+import com.example.repository.GameBoardRepository;
+import com.example.repository.GameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Архив законченных партий. Партия переносится в одну строку game_archives с записью в формате
+ * ReplayCodec, после чего её игра, игроки, поля, клетки и корабли удаляются через GameReaper.
+ * Поля собираются из проекций пачкой, без загрузки сущностей.
+ */
+@Service
+public class GameArchiveService {
+    @Autowired
+    private GameRepository gameRepository;
+    
+    @Autowired
+    private GameBoardRepository gameBoardRepository;
+    
+    @Autowired
+    private GameArchiveRepository gameArchiveRepository;
+    
+    @Autowired
+    private GameReaper gameReaper;
+    
+    /**
+     * Архивирует очередную пачку партий, законченных раньше endedBefore.
+     *
+     * @return сколько партий заархивировано; меньше batchSize — архивировать больше нечего
+     */
+    @Transactional
+    public int archiveFinished(Instant endedBefore, int batchSize) {
+        List<Long> gameIds = gameRepository.findIdsToArchive(
+                Game.GameState.FINISHED, Game.EndReason.EXPIRED, endedBefore, PageRequest.of(0, batchSize));
+        if (gameIds.isEmpty()) {
+            return 0;
+        }
+        
+        List<GameRepository.GameArchiveSource> sources = gameRepository.findArchiveSources(gameIds);
+        Map<Long, BoardEngine> boards = loadBoards(sources);
+        
+        Instant now = Instant.now();
+        List<GameArchive> archives = new ArrayList<>(sources.size());
+        for (GameRepository.GameArchiveSource source : sources) {
+            BoardEngine playerBoard = boards.getOrDefault(source.getPlayerBoardId(), new BoardEngine());
+            BoardEngine aiBoard = boards.getOrDefault(source.getAiBoardId(), new BoardEngine());
+            GameArchive archive = new GameArchive(source.getId());
+            archive.setType(source.getType());
+            archive.setDifficulty(source.getDifficulty());
+            archive.setPlayer1Name(source.getPlayer1Name());
+            archive.setPlayer2Name(source.getPlayer2Name());
+            archive.setWinner(winner(source, playerBoard, aiBoard));
+            archive.setEndReason(source.getEndReason());
+            archive.setCreatedAt(source.getCreatedAt());
+            archive.setEndedAt(source.getEndedAt());
+            archive.setArchivedAt(now);
+            archive.setReplay(ReplayCodec.encode(playerBoard, aiBoard, source.getShotLog()));
+            archives.add(archive);
+        }
+        gameArchiveRepository.saveAll(archives);
+        gameReaper.deleteGames(gameIds);
+        return gameIds.size();
+    }
+    
+    /**
+     * @return запись партии или null, если партия не в архиве
+     */
+    @Transactional(readOnly = true)
+    public GameReplay getReplay(Long gameId) {
+        GameArchive archive = gameArchiveRepository.findById(gameId).orElse(null);
+        if (archive == null) {
+            return null;
+        }
+        ReplayCodec.Replay replay = ReplayCodec.decode(archive.getReplay());
+        
+        GameReplay view = new GameReplay();
+        view.setGameId(archive.getGameId());
+        view.setType(archive.getType());
+        view.setDifficulty(archive.getDifficulty());
+        view.setPlayer1Name(archive.getPlayer1Name());
+        view.setPlayer2Name(archive.getPlayer2Name());
+        view.setWinner(archive.getWinner());
+        view.setEndReason(archive.getEndReason());
+        view.setCreatedAt(archive.getCreatedAt());
+        view.setEndedAt(archive.getEndedAt());
+        view.setPlayerFleet(fleet(replay.playerBoard()));
+        view.setAiFleet(fleet(replay.aiBoard()));
+        view.setPlayerBoard(GameBoard.render(replay.playerBoard(), true));
+        view.setAiBoard(GameBoard.render(replay.aiBoard(), true));
+        if (replay.shots() != null) {
+            List<GameReplay.Shot> shots = new ArrayList<>(replay.shots().length);
+            for (int i = 0; i < replay.shots().length; i++) {
+                int cell = replay.shotCell(i);
+                shots.add(new GameReplay.Shot(cell / BoardEngine.SIZE, cell % BoardEngine.SIZE,
+                        !replay.isShotAtPlayerBoard(i)));
+            }
+            view.setShots(shots);
+        }
+        return view;
+    }
+    
+    // Поля игр: PACKED — из packed_state, остальные — из кораблей и клеток с выстрелами
+    public Map<Long, BoardEngine> loadBoards(List<GameRepository.GameArchiveSource> sources) {
+        List<Long> boardIds = new ArrayList<>();
+        for (GameRepository.GameArchiveSource source : sources) {
+            if (source.getPlayerBoardId() != null) {
+                boardIds.add(source.getPlayerBoardId());
+            }
+            if (source.getAiBoardId() != null) {
+                boardIds.add(source.getAiBoardId());
+            }
+        }
+        Map<Long, BoardEngine> boards = new HashMap<>();
+        if (boardIds.isEmpty()) {
+            return boards;
+        }
+        for (GameBoardRepository.BoardContent content : gameBoardRepository.findContentByIds(boardIds)) {
+            boards.put(content.getBoardId(), content.getStorage() == BoardStorage.PACKED
+                    ? BoardCodec.decode(content.getPackedState())
+                    : new BoardEngine());
+        }
+        // Корабли по порядку id, чтобы номера кораблей совпадали с исходным полем
+        for (GameBoardRepository.BoardShip ship : gameBoardRepository.findShipsByBoardIds(boardIds)) {
+            BoardEngine engine = boards.get(ship.getBoardId());
+            if (engine != null) {
+                engine.place(ship.getStartX(), ship.getStartY(), ship.getHorizontal(), ship.getSize());
+            }
+        }
+        for (GameBoardRepository.BoardCell cell : gameBoardRepository.findCellsByBoardIds(
+                boardIds, List.of(Cell.CellState.HIT, Cell.CellState.MISS))) {
+            BoardEngine engine = boards.get(cell.getBoardId());
+            if (engine != null) {
+                engine.shoot(cell.getX(), cell.getY());
+            }
+        }
+        return boards;
+    }
+    
+    // 1 — первый игрок, 2 — второй игрок или ИИ. При FORFEIT проиграл тот, чей был ход
+    static Integer winner(GameRepository.GameArchiveSource source, BoardEngine playerBoard, BoardEngine aiBoard) {
+        if (aiBoard.getShipCount() > 0 && aiBoard.allShipsSunk()) {
+            return 1;
+        }
+        if (playerBoard.getShipCount() > 0 && playerBoard.allShipsSunk()) {
+            return 2;
+        }
+        if (source.getEndReason() == Game.EndReason.FORFEIT) {
+            return source.getPlayerTurn() ? 2 : 1;
+        }
+        return null;
+    }
+    
+    private static List<ShipPlacement> fleet(BoardEngine engine) {
+        List<ShipPlacement> fleet = new ArrayList<>(engine.getShipCount());
+        for (int shipId = 1; shipId <= engine.getShipCount(); shipId++) {
+            int start = engine.getShipStart(shipId);
+            fleet.add(new ShipPlacement(start / BoardEngine.SIZE, start % BoardEngine.SIZE,
+                    engine.isShipHorizontal(shipId), engine.getShipSize(shipId)));
+        }
+        return fleet;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Фоновый перенос законченных партий в архив через archive-after-ms после окончания,
+ * пачками по batch-size, каждая пачка — отдельная транзакция.
+ */
+@Component
+public class GameArchiver {
+    private static final Logger log = LoggerFactory.getLogger(GameArchiver.class);
+    
+    @Autowired
+    private GameArchiveService gameArchiveService;
+    
+    @Value("${game.archive.archive-after-ms:3600000}")
+    private long archiveAfterMs;
+    
+    @Value("${game.archive.batch-size:200}")
+    private int batchSize;
+    
+    @Scheduled(fixedDelayString = "${game.archive.interval-ms:60000}")
+    public void archiveFinished() {
+        Instant endedBefore = Instant.now().minusMillis(archiveAfterMs);
+        int total = 0;
+        int archived;
+        do {
+            archived = gameArchiveService.archiveFinished(endedBefore, batchSize);
+            total += archived;
+        } while (archived == batchSize);
+        if (total > 0) {
+            log.info("Archived {} finished games", total);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.service;
+
+import com.example.model.Game;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Последние ревизии игр в памяти: для каждой ревизии — оба поля целиком, как видит их владелец
+ * (200 байт). Из разницы со снимком ревизии N строится ответ «изменения с версии N».
+ * Снимки пишет GameRegistry под блокировкой игры; старые ревизии вытесняются по кругу,
+ * и для них клиент получает игру целиком.
+ */
+@Component
+public class GameChangeLog {
+    static final int BOARD_CELLS = 100;
+
+    @Value("${game.changes.history-size:32}")
+    private int historySize;
+
+    private final ConcurrentHashMap<Long, History> histories = new ConcurrentHashMap<>();
+
+    /**
+     * Запоминает текущее состояние игры, если снимка этой ревизии ещё нет.
+     */
+    public void record(Game game) {
+        History history = histories.computeIfAbsent(game.getId(), id -> new History(historySize));
+        synchronized (history) {
+            if (history.latest() != game.getRevision()) {
+                history.add(game.getRevision(), snapshot(game));
+            }
+        }
+    }
+
+    /**
+     * @return снимок ревизии или null, если он уже вытеснен или не записывался
+     */
+    public byte[] snapshot(Long gameId, long revision) {
+        History history = histories.get(gameId);
+        if (history == null) {
+            return null;
+        }
+        synchronized (history) {
+            return history.find(revision);
+        }
+    }
+
+    public void remove(Long gameId) {
+        histories.remove(gameId);
+    }
+
+    // playerBoard, затем aiBoard — по 100 символов формата GameView с открытыми кораблями
+    static byte[] snapshot(Game game) {
+        return (game.getPlayerBoard().render(true) + game.getAiBoard().render(true)).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class History {
+        private final long[] revisions;
+        private final byte[][] snapshots;
+        private int next;
+        private int size;
+
+        private History(int capacity) {
+            this.revisions = new long[capacity];
+            this.snapshots = new byte[capacity][];
+        }
+
+        private long latest() {
+            return size == 0 ? -1 : revisions[(next - 1 + revisions.length) % revisions.length];
+        }
+
+        private void add(long revision, byte[] snapshot) {
+            revisions[next] = revision;
+            snapshots[next] = snapshot;
+            next = (next + 1) % revisions.length;
+            size = Math.min(size + 1, revisions.length);
+        }
+
+        private byte[] find(long revision) {
+            for (int i = 0; i < size; i++) {
+                int slot = (next - 1 - i + revisions.length) % revisions.length;
+                if (revisions[slot] == revision) {
+                    return snapshots[slot];
+                }
+            }
+            return null;
+        }
+    }
+}
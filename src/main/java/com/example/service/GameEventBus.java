@@ -0,0 +1,217 @@
+package com.example.service;
+
+import com.example.dto.GameEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Рассылка событий игр и лобби по Server-Sent Events вместо опроса статуса.
+ * Событие сериализуется один раз и кладётся в ограниченную очередь каждого подписчика;
+ * очередь отправляется в своём виртуальном потоке, так что медленный клиент не задерживает
+ * ни ход, ни остальных подписчиков. Переполнение очереди закрывает соединение — клиент
+ * переподключается и перечитывает состояние. Пульс по таймеру держит соединения живыми
+ * и находит оборванные. Кроме игр и лобби есть личные каналы заявок подбора соперника:
+ * о найденной игре узнаёт только её участник.
+ */
+@Component
+public class GameEventBus {
+    private static final Logger log = LoggerFactory.getLogger(GameEventBus.class);
+    private static final Message HEARTBEAT = new Message(null, null);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${game.events.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${game.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> gameSubscribers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Subscriber>> ticketSubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> lobbySubscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseEmitter subscribeGame(Long gameId) {
+        return subscribe(gameSubscribers, gameId);
+    }
+
+    public SseEmitter subscribeLobby() {
+        return subscribe(null, null);
+    }
+
+    public SseEmitter subscribeTicket(Long ticketId) {
+        return subscribe(ticketSubscribers, ticketId);
+    }
+
+    public void publishGame(GameEvent event) {
+        Set<Subscriber> topic = gameSubscribers.get(event.getGameId());
+        if (topic != null && !topic.isEmpty()) {
+            publish(topic, event);
+        }
+    }
+
+    public void publishTicket(Long ticketId, GameEvent event) {
+        Set<Subscriber> topic = ticketSubscribers.get(ticketId);
+        if (topic != null && !topic.isEmpty()) {
+            publish(topic, event);
+        }
+    }
+
+    public void publishLobby(GameEvent event) {
+        if (!lobbySubscribers.isEmpty()) {
+            publish(lobbySubscribers, event);
+        }
+    }
+
+    public int subscriberCount() {
+        int[] count = {0};
+        forEachSubscriber(subscriber -> count[0]++);
+        return count[0];
+    }
+
+    @Scheduled(fixedDelayString = "${game.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        forEachSubscriber(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        forEachSubscriber(Subscriber::close);
+        sender.shutdown();
+    }
+
+    private void forEachSubscriber(Consumer<Subscriber> action) {
+        lobbySubscribers.forEach(action);
+        gameSubscribers.values().forEach(topic -> topic.forEach(action));
+        ticketSubscribers.values().forEach(topic -> topic.forEach(action));
+    }
+
+    // topics == null — подписка на лобби
+    private SseEmitter subscribe(ConcurrentHashMap<Long, Set<Subscriber>> topics, Long key) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, topics, key);
+        if (topics == null) {
+            lobbySubscribers.add(subscriber);
+        } else {
+            topics.compute(key, (id, topic) -> {
+                Set<Subscriber> subscribers = topic != null ? topic : ConcurrentHashMap.newKeySet();
+                subscribers.add(subscriber);
+                return subscribers;
+            });
+        }
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    private void publish(Set<Subscriber> topic, GameEvent event) {
+        Message message;
+        try {
+            message = new Message(event.getType().name(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize event {}", event.getType(), e);
+            return;
+        }
+        topic.forEach(subscriber -> subscriber.offer(message));
+    }
+
+    private record Message(String name, String json) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // null — подписка на лобби
+        private final Map<Long, Set<Subscriber>> topics;
+        private final Long key;
+        private final ArrayBlockingQueue<Message> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Map<Long, Set<Subscriber>> topics, Long key) {
+            this.emitter = emitter;
+            this.topics = topics;
+            this.key = key;
+        }
+
+        private void offer(Message message) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                log.debug("Closing slow event subscriber for {}", key != null ? key : "lobby");
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // Отправка идёт не больше чем в одном потоке на подписчика, порядок событий сохраняется
+        private void drain() {
+            while (true) {
+                Message message = queue.poll();
+                if (message == null) {
+                    draining.set(false);
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (closed) {
+                    continue;
+                }
+                try {
+                    if (message == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(message.name()).data(message.json(), MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                }
+            }
+        }
+
+        private void close() {
+            if (!closed) {
+                closed = true;
+                remove();
+                emitter.complete();
+            }
+        }
+
+        private void remove() {
+            closed = true;
+            if (topics == null) {
+                lobbySubscribers.remove(this);
+                return;
+            }
+            topics.computeIfPresent(key, (id, topic) -> {
+                topic.remove(this);
+                return topic.isEmpty() ? null : topic;
+            });
+        }
+    }
+}
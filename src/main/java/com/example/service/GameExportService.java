@@ -0,0 +1,231 @@
+package com.example.service;
+
+import com.example.metrics.MetricsRegistry;
+import com.example.model.BoardEngine;
+import com.example.model.Difficulty;
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.model.ReplayCodec;
+import com.example.repository.GameArchiveRepository;
+import com.example.repository.GameRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Потоковая выгрузка законченных игр для аналитики. Незаконченные игры не выгружаются: запись партии
+ * содержит оба флота целиком, и выгрузка идущей игры раскрыла бы расстановку соперника. Игры читаются страницами по page-size с keyset-пагинацией
+ * по id и проекциями, каждая страница пишется в поток и отпускается, поэтому память не зависит
+ * от числа игр. Сначала выгружаются игры из games, затем архив: партия, заархивированная во время
+ * выгрузки, может попасть в неё дважды (с archived=true — окончательная запись), но не пропадёт.
+ * Интервал [from, to) — по времени создания; игры без created_at в выгрузку не попадают.
+ * <p>
+ * Каждая игра — одна запись с полями в формате ReplayCodec. NDJSON: объект в строке, replay в base64.
+ * BINARY: записи подряд, каждая — [int длина][long gameId][byte флаги: 1 — из архива, 2 — есть player1,
+ * 4 — есть player2][byte state][byte type][byte difficulty][byte endReason][byte winner]
+ * [long createdAt, мс][long endedAt, мс][UTF player1][UTF player2][short длина][replay].
+ * Перечисления — порядковые номера, -1 — нет значения; winner 0 — победителя нет; время — Long.MIN_VALUE,
+ * если неизвестно.
+ */
+@Service
+public class GameExportService {
+    private static final Instant MIN_TIME = Instant.EPOCH;
+    private static final Instant MAX_TIME = Instant.parse("9999-12-31T00:00:00Z");
+    private static final Set<Game.GameState> FINISHED = EnumSet.of(Game.GameState.FINISHED);
+    
+    public enum Format {
+        NDJSON,
+        BINARY
+    }
+    
+    @Autowired
+    private GameRepository gameRepository;
+    
+    @Autowired
+    private GameArchiveRepository gameArchiveRepository;
+    
+    @Autowired
+    private GameArchiveService gameArchiveService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MetricsRegistry metrics;
+    
+    @Value("${game.export.page-size:1000}")
+    private int pageSize;
+    
+    /**
+     * Пишет в out законченные игры, созданные в [from, to).
+     *
+     * @param from   начало интервала или null
+     * @param to     конец интервала (не включая) или null
+     * @return сколько игр выгружено
+     */
+    public long export(Instant from, Instant to, Format format, OutputStream out) throws IOException {
+        Instant lower = from != null ? from : MIN_TIME;
+        Instant upper = to != null ? to : MAX_TIME;
+        RecordWriter writer = format == Format.BINARY ? new BinaryWriter(out) : new NdjsonWriter(objectMapper, out);
+        
+        long total = 0;
+        long afterId = 0;
+        List<GameRepository.GameArchiveSource> games;
+        do {
+            games = gameRepository.findExportPage(afterId, FINISHED, lower, upper, PageRequest.of(0, pageSize));
+            Map<Long, BoardEngine> boards = gameArchiveService.loadBoards(games);
+            for (GameRepository.GameArchiveSource game : games) {
+                BoardEngine playerBoard = boards.getOrDefault(game.getPlayerBoardId(), new BoardEngine());
+                BoardEngine aiBoard = boards.getOrDefault(game.getAiBoardId(), new BoardEngine());
+                writer.write(new ExportedGame(game.getId(), game.getState(), game.getType(), game.getDifficulty(),
+                        game.getEndReason(), game.getPlayer1Name(), game.getPlayer2Name(),
+                        GameArchiveService.winner(game, playerBoard, aiBoard),
+                        game.getCreatedAt(), game.getEndedAt(), false,
+                        ReplayCodec.encode(playerBoard, aiBoard, game.getShotLog())));
+                afterId = game.getId();
+            }
+            writer.flush();
+            total += games.size();
+        } while (games.size() == pageSize);
+        
+        afterId = 0;
+        List<GameArchiveRepository.ArchivedGame> archived;
+        do {
+            archived = gameArchiveRepository.findExportPage(afterId, lower, upper, PageRequest.of(0, pageSize));
+            for (GameArchiveRepository.ArchivedGame game : archived) {
+                writer.write(new ExportedGame(game.getGameId(), Game.GameState.FINISHED, game.getType(),
+                        game.getDifficulty(), game.getEndReason(), game.getPlayer1Name(), game.getPlayer2Name(),
+                        game.getWinner(), game.getCreatedAt(), game.getEndedAt(), true, game.getReplay()));
+                afterId = game.getGameId();
+            }
+            writer.flush();
+            total += archived.size();
+        } while (archived.size() == pageSize);
+        metrics.counter("export.games").add(total);
+        return total;
+    }
+    
+    private record ExportedGame(Long gameId, Game.GameState state, GameType type, Difficulty difficulty,
+                                Game.EndReason endReason, String player1Name, String player2Name, Integer winner,
+                                Instant createdAt, Instant endedAt, boolean archived, byte[] replay) {
+    }
+    
+    private interface RecordWriter {
+        void write(ExportedGame game) throws IOException;
+        
+        void flush() throws IOException;
+    }
+    
+    private static class NdjsonWriter implements RecordWriter {
+        private final JsonGenerator json;
+        
+        NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            json = objectMapper.getFactory().createGenerator(out);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Записи разделяются переводом строки, а не пробелом по умолчанию
+            json.setRootValueSeparator(null);
+        }
+        
+        @Override
+        public void write(ExportedGame game) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("gameId", game.gameId());
+            json.writeStringField("state", game.state().name());
+            json.writeStringField("type", game.type().name());
+            if (game.difficulty() != null) {
+                json.writeStringField("difficulty", game.difficulty().name());
+            }
+            if (game.endReason() != null) {
+                json.writeStringField("endReason", game.endReason().name());
+            }
+            if (game.player1Name() != null) {
+                json.writeStringField("player1Name", game.player1Name());
+            }
+            if (game.player2Name() != null) {
+                json.writeStringField("player2Name", game.player2Name());
+            }
+            if (game.winner() != null) {
+                json.writeNumberField("winner", game.winner());
+            }
+            if (game.createdAt() != null) {
+                json.writeStringField("createdAt", game.createdAt().toString());
+            }
+            if (game.endedAt() != null) {
+                json.writeStringField("endedAt", game.endedAt().toString());
+            }
+            json.writeBooleanField("archived", game.archived());
+            json.writeBinaryField("replay", game.replay());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+    }
+    
+    private static class BinaryWriter implements RecordWriter {
+        private static final int ARCHIVED = 1;
+        private static final int HAS_PLAYER1 = 2;
+        private static final int HAS_PLAYER2 = 4;
+        
+        private final DataOutputStream out;
+        // Запись собирается в буфер, чтобы записать перед ней длину; буфер переиспользуется
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        private final DataOutputStream record = new DataOutputStream(buffer);
+        
+        BinaryWriter(OutputStream out) {
+            this.out = new DataOutputStream(out);
+        }
+        
+        @Override
+        public void write(ExportedGame game) throws IOException {
+            buffer.reset();
+            record.writeLong(game.gameId());
+            record.writeByte((game.archived() ? ARCHIVED : 0)
+                    | (game.player1Name() != null ? HAS_PLAYER1 : 0)
+                    | (game.player2Name() != null ? HAS_PLAYER2 : 0));
+            record.writeByte(ordinal(game.state()));
+            record.writeByte(ordinal(game.type()));
+            record.writeByte(ordinal(game.difficulty()));
+            record.writeByte(ordinal(game.endReason()));
+            record.writeByte(game.winner() != null ? game.winner() : 0);
+            record.writeLong(game.createdAt() != null ? game.createdAt().toEpochMilli() : Long.MIN_VALUE);
+            record.writeLong(game.endedAt() != null ? game.endedAt().toEpochMilli() : Long.MIN_VALUE);
+            if (game.player1Name() != null) {
+                record.writeUTF(game.player1Name());
+            }
+            if (game.player2Name() != null) {
+                record.writeUTF(game.player2Name());
+            }
+            record.writeShort(game.replay().length);
+            record.write(game.replay());
+            
+            out.writeInt(buffer.size());
+            buffer.writeTo(out);
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+        
+        private static int ordinal(Enum<?> value) {
+            return value != null ? value.ordinal() : -1;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.model.GameBoard;
+import com.example.model.Player;
+import com.example.model.Ship;
+import com.example.repository.GameRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Загрузка и сохранение игр для GameRegistry. Игры живут в памяти дольше одной транзакции,
+ * поэтому граф загружается целиком, чтобы потом не было обращений к ленивым коллекциям.
+ */
+@Service
+public class GamePersistenceService {
+    @Autowired
+    private GameRepository gameRepository;
+    
+    @Transactional(readOnly = true)
+    public Optional<Game> load(Long gameId) {
+        Optional<Game> game = gameRepository.findAggregateById(gameId);
+        game.ifPresent(GamePersistenceService::initialize);
+        return game;
+    }
+    
+    /**
+     * Сохраняет пачку игр одной транзакцией.
+     *
+     * @return сохранённые экземпляры в том же порядке; их нужно использовать вместо переданных
+     */
+    @Transactional
+    public List<Game> saveAll(List<Game> games) {
+        List<Game> saved = gameRepository.saveAll(games);
+        saved.forEach(GamePersistenceService::initialize);
+        return saved;
+    }
+    
+    private static void initialize(Game game) {
+        initialize(game.getPlayerBoard());
+        initialize(game.getAiBoard());
+        initialize(game.getPlayer1());
+        initialize(game.getPlayer2());
+    }
+    
+    private static void initialize(Player player) {
+        if (player != null) {
+            initialize(player.getGameBoard());
+            Hibernate.initialize(player.getUser());
+        }
+    }
+    
+    private static void initialize(GameBoard board) {
+        if (board == null) {
+            return;
+        }
+        Hibernate.initialize(board.getCells());
+        for (Ship ship : board.getShips()) {
+            Hibernate.initialize(ship.getCells());
+        }
+    }
+}
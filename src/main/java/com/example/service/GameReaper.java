@@ -0,0 +1,98 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.repository.GameBoardRepository;
+import com.example.repository.GameMoveRepository;
+import com.example.repository.GameRepository;
+import com.example.repository.PlayerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Удаление брошенных игр и ожидающих игроков вместе с их полями. Удаляется пачка целиком
+ * несколькими запросами delete ... where id in (...), без загрузки сущностей и каскадов,
+ * в порядке внешних ключей: ходы, игры, игроки, клетки, корабли, поля.
+ */
+@Service
+public class GameReaper {
+    @Autowired
+    private GameRepository gameRepository;
+    
+    @Autowired
+    private GameMoveRepository gameMoveRepository;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private GameBoardRepository gameBoardRepository;
+    
+    @Autowired
+    private GameRegistry gameRegistry;
+    
+    /**
+     * Удаляет очередную пачку игр, брошенных до начала и закончившихся раньше endedBefore.
+     *
+     * @return сколько игр удалено; меньше batchSize — удалять больше нечего
+     */
+    @Transactional
+    public int reapExpired(Instant endedBefore, int batchSize) {
+        List<Long> gameIds = gameRepository.findIdsEndedBefore(
+                Game.EndReason.EXPIRED, endedBefore, PageRequest.of(0, batchSize));
+        if (!gameIds.isEmpty()) {
+            deleteGames(gameIds);
+        }
+        return gameIds.size();
+    }
+    
+    @Transactional
+    public void deleteGames(List<Long> gameIds) {
+        gameRegistry.remove(gameIds);
+        List<Long> playerIds = new ArrayList<>();
+        List<Long> boardIds = new ArrayList<>();
+        for (GameRepository.GameOwnedIds owned : gameRepository.findOwnedIds(gameIds)) {
+            addIfPresent(boardIds, owned.getPlayerBoardId());
+            addIfPresent(boardIds, owned.getAiBoardId());
+            addIfPresent(playerIds, owned.getPlayer1Id());
+            addIfPresent(boardIds, owned.getPlayer1BoardId());
+            addIfPresent(playerIds, owned.getPlayer2Id());
+            addIfPresent(boardIds, owned.getPlayer2BoardId());
+        }
+        gameMoveRepository.deleteByGameIds(gameIds);
+        gameRepository.deleteAllByIdInBatch(gameIds);
+        if (!playerIds.isEmpty()) {
+            playerRepository.deleteAllByIdInBatch(playerIds);
+        }
+        deleteBoards(boardIds);
+    }
+    
+    // Игроки не должны участвовать в играх: игры удаляются раньше, через deleteGames
+    @Transactional
+    public void deletePlayers(List<Long> playerIds) {
+        List<Long> boardIds = playerRepository.findBoardIds(playerIds);
+        playerRepository.deleteAllByIdInBatch(playerIds);
+        deleteBoards(boardIds);
+    }
+    
+    private void deleteBoards(Collection<Long> boardIds) {
+        if (boardIds.isEmpty()) {
+            return;
+        }
+        gameBoardRepository.deleteCellsByBoardIds(boardIds);
+        gameBoardRepository.deleteShipsByBoardIds(boardIds);
+        gameBoardRepository.deleteAllByIdInBatch(boardIds);
+    }
+    
+    private static void addIfPresent(List<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.example.service;
+
+import com.example.dto.GameEvent;
+import com.example.model.Game;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Реестр активных игр в памяти. Все чтения и ходы обслуживаются отсюда,
+ * а изменённые игры сохраняются в базу пачками в фоне (write-behind)
+ * и сразу при смене состояния игры. Игры без обращений выгружаются из памяти.
+ * <p>
+ * Команды одной игры ставятся в её очередь и выполняются строго по порядку поступления
+ * в виртуальном потоке, разные игры обрабатываются параллельно. Блокировок строк в базе нет:
+ * от гонок между узлами страхует версия игры. Копия, проигравшая гонку, заменяется свежей
+ * из базы, и поверх неё повторяются ходы из журнала; без журнала её несохранённые изменения
+ * теряются, о чём узнают и вызывающий, и подписчики игры.
+ * <p>
+ * События, которые команда публикует через {@link #publishGame} и {@link #publishLobby}, рассылаются
+ * только после её успешного завершения: если команда упала или её изменения потеряны при сохранении,
+ * подписчики не узнают о ходе, которого нет.
+ */
+@Component
+public class GameRegistry {
+    private static final Logger log = LoggerFactory.getLogger(GameRegistry.class);
+    // Ответ команды, попавшей в очередь уже выгруженной записи: её нужно поставить заново
+    private static final Object EVICTED = new Object();
+
+    @Autowired
+    private GamePersistenceService gamePersistenceService;
+
+    @Autowired
+    private GameChangeLog gameChangeLog;
+
+    @Autowired
+    private GameTimeouts gameTimeouts;
+
+    @Autowired
+    private LobbyIndex lobbyIndex;
+
+    @Autowired
+    private GameRules gameRules;
+
+    @Autowired
+    private MoveJournal moveJournal;
+
+    @Autowired
+    private GameEventBus gameEventBus;
+
+    @Value("${game.registry.idle-timeout-ms:600000}")
+    private long idleTimeoutMs;
+
+    @Value("${game.registry.flush-batch-size:100}")
+    private int flushBatchSize;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService mailboxes = Executors.newVirtualThreadPerTaskExecutor();
+    // События команды, выполняемой сейчас в этом потоке; null вне команды
+    private final ThreadLocal<List<Runnable>> pendingEvents = new ThreadLocal<>();
+
+    public Game register(Game game) {
+        entries.put(game.getId(), new Entry(game));
+        gameTimeouts.track(game);
+        lobbyIndex.track(game);
+        return game;
+    }
+
+    /**
+     * Читает игру под её блокировкой в обход очереди команд: чтение дожидается только
+     * выполняемой сейчас команды, но не тех, что стоят за ней.
+     */
+    public <T> T read(Long gameId, Function<Game, T> reader) {
+        while (true) {
+            Entry entry = entry(gameId);
+            entry.lock.lock();
+            try {
+                // Запись могли выгрузить, пока мы ждали блокировку
+                if (!entry.evicted) {
+                    entry.lastAccess = System.currentTimeMillis();
+                    return reader.apply(entry.game);
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Ставит команду в очередь игры и ждёт её выполнения. Команды одной игры выполняются
+     * по одной в порядке поступления; игра помечается изменённой, а если команда сменила
+     * состояние игры, игра сохраняется сразу. Исключение команды пробрасывается вызывающему.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T update(Long gameId, Function<Game, T> command) {
+        while (true) {
+            Entry entry = entry(gameId);
+            if (entry.lock.isHeldByCurrentThread()) {
+                // Вложенная команда той же игры, через очередь она ждала бы сама себя
+                return apply(entry, command);
+            }
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            entry.mailbox.add(() -> execute(entry, command, result));
+            if (entry.draining.compareAndSet(false, true)) {
+                mailboxes.execute(() -> drain(entry));
+            }
+            Object value = await(result);
+            if (value != EVICTED) {
+                return (T) value;
+            }
+        }
+    }
+
+    /**
+     * Читает игру, только если она уже в памяти, без загрузки из базы.
+     *
+     * @return результат чтения или null, если игры в реестре нет
+     */
+    public <T> T readIfLoaded(Long gameId, Function<Game, T> reader) {
+        Entry entry = entries.get(gameId);
+        if (entry == null) {
+            return null;
+        }
+        entry.lock.lock();
+        try {
+            return entry.evicted ? null : reader.apply(entry.game);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Выгружает игры без сохранения, например перед их удалением из базы.
+     */
+    public void remove(Collection<Long> gameIds) {
+        for (Long gameId : gameIds) {
+            gameTimeouts.cancel(gameId);
+            Entry entry = entries.get(gameId);
+            if (entry == null) {
+                continue;
+            }
+            entry.lock.lock();
+            try {
+                unload(entry);
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Событие игры: внутри команды откладывается до её успешного завершения, вне команды рассылается сразу.
+     */
+    public void publishGame(GameEvent event) {
+        publish(() -> gameEventBus.publishGame(event));
+    }
+
+    /**
+     * Событие лобби, откладывается так же, как {@link #publishGame}.
+     */
+    public void publishLobby(GameEvent event) {
+        publish(() -> gameEventBus.publishLobby(event));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${game.registry.flush-interval-ms:1000}")
+    public void flushDirty() {
+        List<Entry> batch = new ArrayList<>(flushBatchSize);
+        for (Entry entry : entries.values()) {
+            if (!entry.dirty) {
+                continue;
+            }
+            entry.lock.lock();
+            // Пока ждали блокировку, запись могли сохранить или выгрузить
+            if (!entry.dirty || entry.evicted) {
+                entry.lock.unlock();
+                continue;
+            }
+            if (entry.flushFailures > 0) {
+                // Игра, которую уже не удалось сохранить, сохраняется отдельно и не валит пачку
+                flushAndUnlock(List.of(entry));
+                continue;
+            }
+            batch.add(entry);
+            if (batch.size() == flushBatchSize) {
+                flushAndUnlock(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushAndUnlock(batch);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${game.registry.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - idleTimeoutMs;
+        for (Entry entry : entries.values()) {
+            if (entry.lastAccess >= idleBefore || !entry.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (entry.dirty) {
+                    flush(List.of(entry));
+                }
+                if (!entry.dirty) {
+                    unload(entry);
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Дожидаемся уже поставленных команд, новые после этого отклоняются
+        mailboxes.close();
+        flushDirty();
+    }
+
+    private Entry entry(Long gameId) {
+        Entry entry = entries.get(gameId);
+        if (entry != null) {
+            return entry;
+        }
+        Game game = gamePersistenceService.load(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+        Entry loaded = new Entry(game);
+        entry = entries.putIfAbsent(gameId, loaded);
+        if (entry != null) {
+            return entry;
+        }
+        gameTimeouts.track(game);
+        lobbyIndex.track(game);
+        return loaded;
+    }
+
+    // Очередь игры разбирается не больше чем в одном потоке, порядок команд сохраняется
+    private void drain(Entry entry) {
+        while (true) {
+            Runnable task = entry.mailbox.poll();
+            if (task == null) {
+                entry.draining.set(false);
+                if (entry.mailbox.isEmpty() || !entry.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            task.run();
+        }
+    }
+
+    private <T> void execute(Entry entry, Function<Game, T> command, CompletableFuture<Object> result) {
+        entry.lock.lock();
+        try {
+            if (entry.evicted) {
+                result.complete(EVICTED);
+                return;
+            }
+            entry.lastAccess = System.currentTimeMillis();
+            result.complete(apply(entry, command));
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    // Вызывается под блокировкой записи
+    private <T> T apply(Entry entry, Function<Game, T> command) {
+        List<Runnable> outer = pendingEvents.get();
+        List<Runnable> events = new ArrayList<>();
+        pendingEvents.set(events);
+        T result;
+        try {
+            result = applyCommand(entry, command);
+        } finally {
+            pendingEvents.set(outer);
+        }
+        if (outer != null) {
+            // Вложенная команда: её события уйдут вместе с событиями внешней
+            outer.addAll(events);
+        } else {
+            events.forEach(Runnable::run);
+        }
+        return result;
+    }
+
+    private <T> T applyCommand(Entry entry, Function<Game, T> command) {
+        Game game = entry.game;
+        Game.GameState stateBefore = game.getState();
+        long revisionBefore = game.getRevision();
+        // Снимок ревизии, с которой начинается команда, нужен для ответа «изменения с версии»
+        gameChangeLog.record(game);
+        T result;
+        try {
+            result = command.apply(game);
+        } finally {
+            // Упавшая команда могла успеть изменить игру: эти изменения тоже сохраняются
+            entry.dirty = true;
+            gameChangeLog.record(game);
+            if (game.getRevision() != revisionBefore) {
+                game.setLastActivityAt(Instant.now());
+            }
+            gameTimeouts.track(game);
+            lobbyIndex.track(game);
+        }
+        if (game.getState() != stateBefore && !flush(List.of(entry))) {
+            throw new RuntimeException("Game was modified concurrently, please retry");
+        }
+        return result;
+    }
+
+    private void publish(Runnable send) {
+        List<Runnable> pending = pendingEvents.get();
+        if (pending != null) {
+            pending.add(send);
+        } else {
+            send.run();
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void flushAndUnlock(List<Entry> batch) {
+        try {
+            flush(batch);
+        } finally {
+            batch.forEach(entry -> entry.lock.unlock());
+        }
+    }
+
+    /**
+     * Вызывается под блокировками всех записей пачки. Игра, которую не удалось сохранить,
+     * остаётся изменённой и сохраняется следующим проходом отдельно от остальных.
+     *
+     * @return false, если изменения какой-то игры потеряны: её сохранили с другого узла, а журнал выключен
+     */
+    private boolean flush(List<Entry> batch) {
+        List<Game> games = new ArrayList<>(batch.size());
+        batch.forEach(entry -> games.add(entry.game));
+        try {
+            List<Game> saved = gamePersistenceService.saveAll(games);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).game = saved.get(i);
+                batch.get(i).dirty = false;
+                batch.get(i).flushFailures = 0;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // Неизвестно, какая игра виновата: сохраняем пачку по одной, чтобы она не мешала остальным
+                boolean kept = true;
+                for (Entry entry : batch) {
+                    kept &= flush(List.of(entry));
+                }
+                return kept;
+            }
+            Entry entry = batch.get(0);
+            if (e instanceof OptimisticLockingFailureException) {
+                return reconcile(entry);
+            }
+            entry.flushFailures++;
+            log.error("Failed to flush game {} (attempt {}), will retry", entry.game.getId(), entry.flushFailures, e);
+            return true;
+        }
+    }
+
+    /**
+     * Игру уже сохранили с другого узла: копия в памяти заменяется свежей из базы, поверх неё
+     * повторяются ходы журнала, которых в ней нет, в том числе сделанные здесь. Вызывается под блокировкой записи.
+     *
+     * @return false, если журнал выключен и несохранённые изменения копии потеряны
+     */
+    private boolean reconcile(Entry entry) {
+        Long gameId = entry.game.getId();
+        Game game = gamePersistenceService.load(gameId).orElse(null);
+        if (game == null) {
+            log.warn("Game {} was deleted concurrently, dropping in-memory copy", gameId);
+            unload(entry);
+            return false;
+        }
+        // Снимки ревизий относятся к заменяемой копии
+        gameChangeLog.remove(gameId);
+        entry.game = game;
+        entry.flushFailures = 0;
+        boolean kept = moveJournal.isEnabled();
+        if (kept) {
+            int replayed = gameRules.replayJournal(game);
+            entry.dirty = replayed > 0;
+            log.warn("Game {} was modified concurrently, reloaded it and replayed {} journaled moves", gameId, replayed);
+        } else {
+            entry.dirty = false;
+            log.error("Game {} was modified concurrently, unsaved changes are lost: enable game.journal to keep them", gameId);
+        }
+        gameTimeouts.track(game);
+        lobbyIndex.track(game);
+        // Клиенты могли видеть чужие ходы: пусть перечитают игру. Событие уходит сразу, даже если команда,
+        // при сохранении которой случился конфликт, завершится ошибкой
+        gameEventBus.publishGame(GameEvent.state(gameId, game.getState()));
+        return kept;
+    }
+
+    // Вызывается под блокировкой записи
+    private void unload(Entry entry) {
+        Long gameId = entry.game.getId();
+        entry.dirty = false;
+        entry.evicted = true;
+        entries.remove(gameId, entry);
+        gameChangeLog.remove(gameId);
+    }
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ConcurrentLinkedQueue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private Game game;
+        private volatile boolean dirty;
+        // Неудачные попытки сохранения подряд; такая игра сохраняется отдельно от пачки
+        private int flushFailures;
+        private volatile boolean evicted;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Entry(Game game) {
+            this.game = game;
+        }
+    }
+}
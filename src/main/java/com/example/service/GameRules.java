@@ -0,0 +1,91 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.model.GameMove;
+import com.example.model.GameType;
+import com.example.model.Ship;
+import com.example.model.ShotResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Правила хода: расстановка, выстрел и смена состояния игры, а также повтор ходов из журнала
+ * поверх сохранённого состояния. Вызывается под блокировкой игры в GameRegistry.
+ */
+@Component
+public class GameRules {
+    @Autowired
+    private MoveJournal moveJournal;
+    
+    @Autowired
+    private AiSessionCache aiSessionCache;
+    
+    public boolean placeShip(Game game, int x, int y, boolean horizontal, int size) {
+        if (game.getState() != Game.GameState.PLACING_SHIPS) {
+            return false;
+        }
+        
+        Ship ship = new Ship(x, y, horizontal, size);
+        boolean success = game.getPlayerBoard().placeShip(ship);
+        if (success) {
+            game.bumpRevision();
+        }
+        
+        if (success && game.getPlayerBoard().areAllShipsPlaced()) {
+            game.setState(Game.GameState.IN_PROGRESS);
+        }
+        
+        return success;
+    }
+    
+    public ShotResult shoot(Game game, int x, int y) {
+        if (game.getState() != Game.GameState.IN_PROGRESS) {
+            return ShotResult.INVALID;
+        }
+        
+        ShotResult result = game.shoot(x, y, game.isPlayerTurn());
+        if (result != ShotResult.INVALID) {
+            game.bumpRevision();
+            game.setPlayerTurn(!game.isPlayerTurn());
+            if (game.isGameOver()) {
+                game.setState(Game.GameState.FINISHED);
+                game.setEndedAt(Instant.now());
+            }
+        }
+        
+        return result;
+    }
+    
+    public boolean isAiTurn(Game game) {
+        return game.getType() == GameType.SINGLE_PLAYER
+                && game.getState() == Game.GameState.IN_PROGRESS
+                && !game.isPlayerTurn();
+    }
+    
+    /**
+     * Повторяет ходы журнала новее Game.journalSeq. ИИ игры восстанавливается заново
+     * из сохранённого состояния и узнаёт о своих повторённых выстрелах.
+     *
+     * @return сколько ходов повторено
+     */
+    public int replayJournal(Game game) {
+        aiSessionCache.remove(game.getId());
+        int replayed = 0;
+        for (GameMove move : moveJournal.findUnapplied(game)) {
+            if (move.getType() == GameMove.MoveType.PLACE_SHIP) {
+                placeShip(game, move.getX(), move.getY(), move.isFlag(), move.getSize());
+            } else {
+                boolean aiMove = isAiTurn(game);
+                ShotResult result = shoot(game, move.getX(), move.getY());
+                if (aiMove && result != ShotResult.INVALID) {
+                    aiSessionCache.recordShot(game, move.getX(), move.getY(), result);
+                }
+            }
+            game.setJournalSeq(move.getSeq());
+            replayed++;
+        }
+        return replayed;
+    }
+}
@@ -1,63 +1,247 @@
 package com.example.service;
 
+import com.example.ai.BattleshipAI;
+import com.example.dto.FleetPlacementResponse;
+import com.example.dto.GameDelta;
+import com.example.dto.GameEvent;
+import com.example.dto.GameView;
+import com.example.dto.ShipPlacement;
+import com.example.exception.GameAccessDeniedException;
+import com.example.metrics.MetricsRegistry;
+import com.example.metrics.Timed;
+import com.example.model.BoardStorage;
 import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.model.Player;
 import com.example.model.Ship;
+import com.example.model.ShotResult;
 import com.example.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class GameService {
+    private static final Logger log = LoggerFactory.getLogger(GameService.class);
+    
     @Autowired
     private GameRepository gameRepository;
     
-    public Game createGame() {
-        Game game = new Game();
-        return gameRepository.save(game);
+    @Autowired
+    private GameRegistry gameRegistry;
+    
+    @Autowired
+    private MoveJournal moveJournal;
+    
+    @Autowired
+    private GameRules gameRules;
+    
+    @Autowired
+    private AiSessionCache aiSessionCache;
+    
+    @Autowired
+    private FleetValidator fleetValidator;
+    
+    @Autowired
+    private GameViewMapper gameViewMapper;
+    
+    @Autowired
+    private GameChangeLog gameChangeLog;
+    
+    @Autowired
+    private MetricsRegistry metrics;
+    
+    @Value("${game.board.storage:CELLS}")
+    private BoardStorage boardStorage;
+    
+    @Timed("game.create_game")
+    public Game createGame(Player player) {
+        Game game = new Game(boardStorage);
+        game.setType(GameType.SINGLE_PLAYER);
+        game.setPlayer1(player);
+        aiSessionCache.placeShips(game);
+        return gameRegistry.register(gameRepository.save(game));
     }
     
-    public boolean placeShip(Long gameId, int x, int y, boolean horizontal, int size) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
-                
-        if (game.getState() != Game.GameState.PLACING_SHIPS) {
-            return false;
+    @Timed("game.place_ship")
+    public boolean placeShip(Long gameId, Long userId, int x, int y, boolean horizontal, int size) {
+        return gameRegistry.update(gameId, game -> {
+            requireFirstPlayer(game, userId);
+            Game.GameState stateBefore = game.getState();
+            boolean success = gameRules.placeShip(game, x, y, horizontal, size);
+            if (success) {
+                moveJournal.appendPlaceShip(game, x, y, horizontal, size);
+                if (game.getState() != stateBefore) {
+                    gameRegistry.publishGame(GameEvent.state(gameId, game.getState()));
+                }
+            }
+            return success;
+        });
+    }
+    
+    /**
+     * Ставит весь флот игрока за один запрос: флот проверяется целиком до обращения к игре,
+     * и либо ставятся все корабли, либо ни одного. Игра сохраняется один раз при переходе в IN_PROGRESS.
+     */
+    @Timed("game.place_fleet")
+    public FleetPlacementResponse placeFleet(Long gameId, Long userId, List<ShipPlacement> placements) {
+        List<FleetPlacementResponse.ShipError> errors = fleetValidator.validate(placements);
+        if (!errors.isEmpty()) {
+            return new FleetPlacementResponse(false, errors);
         }
         
-        Ship ship = new Ship(x, y, horizontal, size);
-        boolean success = game.getPlayerBoard().placeShip(ship);
-        
-        if (success && game.getPlayerBoard().areAllShipsPlaced()) {
+        List<Ship> ships = new ArrayList<>(placements.size());
+        for (ShipPlacement placement : placements) {
+            ships.add(new Ship(placement.getX(), placement.getY(), placement.isHorizontal(), placement.getSize()));
+        }
+        String error = gameRegistry.update(gameId, game -> {
+            requireFirstPlayer(game, userId);
+            if (game.getState() != Game.GameState.PLACING_SHIPS) {
+                return "Ships can only be placed before the game starts";
+            }
+            if (game.getPlayerBoard().countPlacedShips() > 0) {
+                return "Some ships are already placed";
+            }
+            
+            for (Ship ship : ships) {
+                game.getPlayerBoard().placeShip(ship);
+            }
             game.setState(Game.GameState.IN_PROGRESS);
-            gameRepository.save(game);
+            game.bumpRevision();
+            moveJournal.appendFleet(game, ships);
+            gameRegistry.publishGame(GameEvent.state(gameId, game.getState()));
+            return null;
+        });
+        if (error != null) {
+            return new FleetPlacementResponse(false, List.of(new FleetPlacementResponse.ShipError(null, error)));
         }
-        
-        return success;
+        return new FleetPlacementResponse(true, List.of());
     }
     
-    public boolean makeMove(Long gameId, int x, int y) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
-                
-        if (game.getState() != Game.GameState.IN_PROGRESS) {
-            return false;
-        }
-        
-        boolean success = game.makeMove(x, y, game.isPlayerTurn());
-        if (success) {
-            game.setPlayerTurn(!game.isPlayerTurn());
-            if (game.isGameOver()) {
-                game.setState(Game.GameState.FINISHED);
+    @Timed("game.make_move")
+    public boolean makeMove(Long gameId, Long userId, int x, int y) {
+        return gameRegistry.update(gameId, game -> {
+            int seat = game.seatOf(userId);
+            if (seat == 0) {
+                throw new GameAccessDeniedException("Player not in game");
             }
-            gameRepository.save(game);
-        }
-        
-        return success;
+            boolean isPlayerMove = game.isPlayerTurn();
+            // Ход соперника: выстрел не принимается, как и любой недопустимый
+            if (seat != (isPlayerMove ? 1 : 2)) {
+                return false;
+            }
+            ShotResult result = gameRules.shoot(game, x, y);
+            if (result == ShotResult.INVALID) {
+                return false;
+            }
+            
+            moveJournal.appendShot(game, x, y, isPlayerMove);
+            gameRegistry.publishGame(GameEvent.shot(gameId, x, y, result, isPlayerMove));
+            if (gameRules.isAiTurn(game)) {
+                makeAiMove(game);
+            }
+            if (game.getState() == Game.GameState.FINISHED) {
+                aiSessionCache.remove(gameId);
+                gameRegistry.publishGame(GameEvent.state(gameId, Game.GameState.FINISHED));
+            } else {
+                gameRegistry.publishGame(GameEvent.turn(gameId, game.isPlayerTurn()));
+            }
+            return true;
+        });
     }
     
+    /**
+     * Состояние игры из реестра, а если игры в памяти нет — одним запросом без загрузки полей.
+     */
     public Game.GameState getGameStatus(Long gameId) {
-        Game game = gameRepository.findById(gameId)
+        Game.GameState state = gameRegistry.readIfLoaded(gameId, Game::getState);
+        if (state != null) {
+            return state;
+        }
+        return gameRepository.findStateById(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+    }
+    
+    public GameView getView(Long gameId, Long userId) {
+        return gameRegistry.read(gameId, game -> gameViewMapper.toView(game, userId));
+    }
+    
+    /**
+     * Ревизия игры для ETag: из реестра, а если игры в памяти нет — одним запросом без загрузки полей.
+     */
+    public long getRevision(Long gameId) {
+        Long revision = gameRegistry.readIfLoaded(gameId, Game::getRevision);
+        if (revision != null) {
+            return revision;
+        }
+        return gameRepository.findRevisionById(gameId)
                 .orElseThrow(() -> new RuntimeException("Game not found"));
-        return game.getState();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Место пользователя в игре для ETag вида: 1 или 2, 0 — не участник или нет пользователя.
+     * Из реестра, а если игры в памяти нет — одним запросом без загрузки полей.
+     */
+    public int getSeat(Long gameId, Long userId) {
+        if (userId == null) {
+            return 0;
+        }
+        Integer seat = gameRegistry.readIfLoaded(gameId, game -> game.seatOf(userId));
+        if (seat != null) {
+            return seat;
+        }
+        return gameRepository.findSeatById(gameId, userId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+    }
+    
+    public GameDelta getChanges(Long gameId, long since, Long userId) {
+        return gameRegistry.read(gameId, game ->
+                gameViewMapper.toDelta(game, userId, since, gameChangeLog.snapshot(gameId, since)));
+    }
+    
+    /**
+     * Восстанавливает игры, у которых в журнале есть ходы новее сохранённого состояния.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverFromJournal() {
+        if (!moveJournal.isEnabled()) {
+            return;
+        }
+        List<Long> gameIds = moveJournal.findGamesToRecover();
+        for (Long gameId : gameIds) {
+            gameRegistry.update(gameId, gameRules::replayJournal);
+        }
+        if (!gameIds.isEmpty()) {
+            gameRegistry.flushDirty();
+            log.info("Recovered {} games from the move journal", gameIds.size());
+        }
+    }
+    
+    // Расставляет корабли только первый игрок: ему принадлежит playerBoard
+    private static void requireFirstPlayer(Game game, Long userId) {
+        if (game.seatOf(userId) != 1) {
+            throw new GameAccessDeniedException("Only the first player places ships");
+        }
+    }
+    
+    // Ответный выстрел ИИ по полю игрока в одиночной игре
+    private void makeAiMove(Game game) {
+        BattleshipAI ai = aiSessionCache.get(game);
+        long start = System.nanoTime();
+        int[] move = ai.makeMove(game.getPlayerBoard());
+        metrics.recordSince("ai.make_move", start);
+        ShotResult result = gameRules.shoot(game, move[0], move[1]);
+        if (result != ShotResult.INVALID) {
+            aiSessionCache.recordShot(game, move[0], move[1], result);
+            moveJournal.appendShot(game, move[0], move[1], false);
+            gameRegistry.publishGame(GameEvent.shot(game.getId(), move[0], move[1], result, false));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.service;
+
+import com.example.dto.GameEvent;
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Обработка сработавших сроков из GameTimeouts. Игра, в которой не дождались второго игрока
+ * или расстановки, закрывается как EXPIRED; игра, в которой не походили вовремя, заканчивается
+ * поражением того, чей был ход (FORFEIT). Брошенные игры через reap-after-ms удаляются из базы
+ * вместе с полями пачками через GameReaper.
+ */
+@Service
+public class GameTimeoutService {
+    private static final Logger log = LoggerFactory.getLogger(GameTimeoutService.class);
+    
+    @Autowired
+    private GameTimeouts gameTimeouts;
+    
+    @Autowired
+    private GameRegistry gameRegistry;
+    
+    @Autowired
+    private GameRepository gameRepository;
+    
+    @Autowired
+    private GameReaper gameReaper;
+    
+    @Autowired
+    private LobbyService lobbyService;
+    
+    @Autowired
+    private AiSessionCache aiSessionCache;
+    
+    @Value("${game.timeouts.max-expirations-per-tick:500}")
+    private int maxExpirationsPerTick;
+    
+    @Value("${game.timeouts.reap-after-ms:3600000}")
+    private long reapAfterMs;
+    
+    @Value("${game.timeouts.reap-batch-size:500}")
+    private int reapBatchSize;
+    
+    /**
+     * Ставит сроки всем незаконченным играм из базы: в памяти после перезапуска их нет.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void trackUnfinished() {
+        long afterId = 0;
+        int total = 0;
+        List<GameRepository.GameActivity> page;
+        do {
+            page = gameRepository.findUnfinishedAfter(Game.GameState.FINISHED, afterId, PageRequest.of(0, reapBatchSize));
+            for (GameRepository.GameActivity game : page) {
+                gameTimeouts.track(game.getId(), game.getState(), game.getType(),
+                        game.getPlayer2Id() != null, game.getLastActivityAt());
+                afterId = game.getId();
+            }
+            total += page.size();
+        } while (page.size() == reapBatchSize);
+        if (total > 0) {
+            log.info("Tracking timeouts for {} unfinished games", total);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${game.timeouts.tick-ms:1000}")
+    public void expireDue() {
+        long now = System.currentTimeMillis();
+        for (Long gameId : gameTimeouts.expiredGames(now, maxExpirationsPerTick)) {
+            try {
+                expire(gameId, now);
+            } catch (RuntimeException e) {
+                log.warn("Failed to expire game {}", gameId, e);
+            }
+        }
+        List<Long> playerIds = gameTimeouts.expiredWaitingPlayers(now, maxExpirationsPerTick);
+        if (!playerIds.isEmpty()) {
+            lobbyService.expireWaitingPlayers(playerIds);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${game.timeouts.reap-interval-ms:60000}")
+    public void reapExpired() {
+        Instant endedBefore = Instant.now().minusMillis(reapAfterMs);
+        int total = 0;
+        int reaped;
+        do {
+            reaped = gameReaper.reapExpired(endedBefore, reapBatchSize);
+            total += reaped;
+        } while (reaped == reapBatchSize);
+        if (total > 0) {
+            log.info("Deleted {} abandoned games", total);
+        }
+    }
+    
+    private void expire(Long gameId, long now) {
+        gameRegistry.update(gameId, game -> {
+            long deadline = gameTimeouts.deadline(game);
+            // Игра закончилась или изменилась после того, как сработал срок
+            if (deadline < 0 || deadline > now) {
+                return null;
+            }
+            boolean started = game.getState() == Game.GameState.IN_PROGRESS;
+            game.setState(Game.GameState.FINISHED);
+            game.setEndReason(started ? Game.EndReason.FORFEIT : Game.EndReason.EXPIRED);
+            game.setEndedAt(Instant.now());
+            game.bumpRevision();
+            aiSessionCache.remove(gameId);
+            gameRegistry.publishGame(GameEvent.state(gameId, Game.GameState.FINISHED));
+            if (game.getType() == GameType.MULTI_PLAYER && game.getPlayer2() == null) {
+                gameRegistry.publishLobby(GameEvent.lobby(GameEvent.Type.GAME_CLOSED, gameId, game.getType()));
+            }
+            return null;
+        });
+    }
+}
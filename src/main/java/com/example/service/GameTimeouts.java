@@ -0,0 +1,103 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.scheduling.TimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Сроки игр и ожидающих игроков в колесах таймеров. У каждой незаконченной игры один срок,
+ * он зависит от её состояния и отсчитывается от последнего изменения: ожидание второго игрока,
+ * расстановка или ход. GameRegistry переставляет срок после каждой команды, а сработавшие сроки
+ * забирает и обрабатывает GameTimeoutService.
+ */
+@Component
+public class GameTimeouts {
+    private final long lobbyTimeoutMs;
+    private final long placementTimeoutMs;
+    private final long turnTimeoutMs;
+    private final long waitingPlayerTimeoutMs;
+    private final TimingWheel<Long> games;
+    private final TimingWheel<Long> waitingPlayers;
+
+    public GameTimeouts(@Value("${game.timeouts.lobby-ms:1800000}") long lobbyTimeoutMs,
+                        @Value("${game.timeouts.placement-ms:900000}") long placementTimeoutMs,
+                        @Value("${game.timeouts.turn-ms:300000}") long turnTimeoutMs,
+                        @Value("${game.timeouts.waiting-player-ms:1800000}") long waitingPlayerTimeoutMs,
+                        @Value("${game.timeouts.tick-ms:1000}") long tickMs,
+                        @Value("${game.timeouts.wheel-size:4096}") int wheelSize) {
+        this.lobbyTimeoutMs = lobbyTimeoutMs;
+        this.placementTimeoutMs = placementTimeoutMs;
+        this.turnTimeoutMs = turnTimeoutMs;
+        this.waitingPlayerTimeoutMs = waitingPlayerTimeoutMs;
+        long now = System.currentTimeMillis();
+        this.games = new TimingWheel<>(tickMs, wheelSize, now);
+        this.waitingPlayers = new TimingWheel<>(tickMs, wheelSize, now);
+    }
+
+    public void track(Game game) {
+        long deadline = deadline(game);
+        if (deadline < 0) {
+            games.cancel(game.getId());
+        } else {
+            games.schedule(game.getId(), deadline);
+        }
+    }
+
+    public void track(Long gameId, Game.GameState state, GameType type, boolean hasSecondPlayer, Instant lastActivity) {
+        long deadline = deadline(state, type, hasSecondPlayer, lastActivity);
+        if (deadline >= 0) {
+            games.schedule(gameId, deadline);
+        }
+    }
+
+    public void cancel(Long gameId) {
+        games.cancel(gameId);
+    }
+
+    /**
+     * @return срок игры в миллисекундах эпохи или -1, если игра закончена
+     */
+    public long deadline(Game game) {
+        return deadline(game.getState(), game.getType(), game.getPlayer2() != null, game.getLastActivityAt());
+    }
+
+    public List<Long> expiredGames(long nowMs, int limit) {
+        return games.advance(nowMs, limit);
+    }
+
+    public int trackedGames() {
+        return games.size();
+    }
+
+    public void trackWaitingPlayer(Long playerId) {
+        waitingPlayers.schedule(playerId, System.currentTimeMillis() + waitingPlayerTimeoutMs);
+    }
+
+    public void cancelWaitingPlayer(Long playerId) {
+        waitingPlayers.cancel(playerId);
+    }
+
+    public List<Long> expiredWaitingPlayers(long nowMs, int limit) {
+        return waitingPlayers.advance(nowMs, limit);
+    }
+
+    private long deadline(Game.GameState state, GameType type, boolean hasSecondPlayer, Instant lastActivity) {
+        if (state == Game.GameState.FINISHED) {
+            return -1;
+        }
+        // У игр, сохранённых до появления тайм-аутов, отсчёт идёт с момента запуска
+        long since = lastActivity != null ? lastActivity.toEpochMilli() : System.currentTimeMillis();
+        if (type == GameType.MULTI_PLAYER && !hasSecondPlayer) {
+            return since + lobbyTimeoutMs;
+        }
+        if (state == Game.GameState.PLACING_SHIPS) {
+            return since + placementTimeoutMs;
+        }
+        return since + turnTimeoutMs;
+    }
+}
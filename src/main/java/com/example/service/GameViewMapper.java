@@ -0,0 +1,93 @@
+package com.example.service;
+
+import com.example.dto.GameDelta;
+import com.example.dto.GameView;
+import com.example.dto.PlayerView;
+import com.example.model.Game;
+import com.example.model.GameBoard;
+import com.example.model.Player;
+import org.springframework.stereotype.Component;
+
+/**
+ * Собирает GameView из игры в реестре. Читает только поля игры, игроков и движки полей,
+ * ленивые связи (клетки, корабли, Player.gameBoard) не трогает.
+ * Первому игроку принадлежит playerBoard, второму игроку или ИИ — aiBoard.
+ * Зритель видит поля как первый игрок, но свои корабли первого игрока ему не показываются.
+ */
+@Component
+public class GameViewMapper {
+
+    /**
+     * @param userId пользователь, для которого строится вид; не участник игры или null — зритель
+     */
+    public GameView toView(Game game, Long userId) {
+        int seat = game.seatOf(userId);
+        boolean firstPlayer = seat != 2;
+        GameBoard own = firstPlayer ? game.getPlayerBoard() : game.getAiBoard();
+        GameBoard opponent = firstPlayer ? game.getAiBoard() : game.getPlayerBoard();
+        boolean reveal = game.getState() == Game.GameState.FINISHED;
+
+        GameView view = new GameView();
+        view.setId(game.getId());
+        view.setRevision(game.getRevision());
+        view.setType(game.getType());
+        view.setDifficulty(game.getDifficulty());
+        view.setState(game.getState());
+        view.setEndReason(game.getEndReason());
+        view.setPlayerTurn(game.isPlayerTurn());
+        view.setFirstPlayer(seat == 1);
+        view.setSpectator(seat == 0);
+        view.setPlayer1(toView(game.getPlayer1()));
+        view.setPlayer2(toView(game.getPlayer2()));
+        view.setOwnBoard(own.render(seat != 0 || reveal));
+        view.setOpponentBoard(opponent.render(reveal));
+        return view;
+    }
+
+    /**
+     * Изменения с ревизии since по её снимку из GameChangeLog; без снимка — вся игра.
+     */
+    public GameDelta toDelta(Game game, Long userId, long since, byte[] base) {
+        GameDelta delta = new GameDelta();
+        delta.setGameId(game.getId());
+        delta.setSince(since);
+        delta.setRevision(game.getRevision());
+        delta.setState(game.getState());
+        delta.setPlayerTurn(game.isPlayerTurn());
+        if (base == null) {
+            delta.setFull(true);
+            delta.setView(toView(game, userId));
+            return delta;
+        }
+
+        byte[] current = GameChangeLog.snapshot(game);
+        int seat = game.seatOf(userId);
+        int own = seat != 2 ? 0 : GameChangeLog.BOARD_CELLS;
+        int opponent = seat != 2 ? GameChangeLog.BOARD_CELLS : 0;
+        boolean reveal = game.getState() == Game.GameState.FINISHED;
+        boolean spectator = seat == 0;
+        delta.setOwnChanges(changes(base, current, own, !spectator, !spectator || reveal));
+        delta.setOpponentChanges(changes(base, current, opponent, false, reveal));
+        return delta;
+    }
+
+    private static String changes(byte[] base, byte[] current, int offset, boolean revealedBefore, boolean revealedNow) {
+        StringBuilder changes = new StringBuilder();
+        for (int cell = 0; cell < GameChangeLog.BOARD_CELLS; cell++) {
+            char before = fog((char) base[offset + cell], revealedBefore);
+            char now = fog((char) current[offset + cell], revealedNow);
+            if (before != now) {
+                changes.append((char) ('0' + cell / 10)).append((char) ('0' + cell % 10)).append(now);
+            }
+        }
+        return changes.toString();
+    }
+
+    private static char fog(char symbol, boolean revealShips) {
+        return symbol == 'S' && !revealShips ? '.' : symbol;
+    }
+
+    private static PlayerView toView(Player player) {
+        return player == null ? null : new PlayerView(player.getId(), player.getUsername(), player.isReady());
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.service;
+
+import com.example.model.Difficulty;
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.model.Player;
+import com.example.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Индексы лобби в памяти: игрок -> его текущая игра и упорядоченный набор открытых игр,
+ * ждущих второго игрока, по (тип, сложность, время создания). Поиск игры игрока — O(1),
+ * страница открытых игр — O(log n + размер страницы). GameRegistry обновляет индексы после каждой
+ * команды, так что любое изменение игры сразу в них попадает; при старте они строятся из базы.
+ */
+@Component
+public class LobbyIndex {
+    private static final Logger log = LoggerFactory.getLogger(LobbyIndex.class);
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final Comparator<OpenGame> ORDER = Comparator.comparing(OpenGame::type)
+            .thenComparing(OpenGame::difficulty, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(OpenGame::createdAt)
+            .thenComparing(OpenGame::gameId);
+
+    /**
+     * Открытая игра. Ключ упорядочивания служит и курсором страницы.
+     */
+    public record OpenGame(Long gameId, GameType type, Difficulty difficulty, Instant createdAt, String host) {
+        public String cursor() {
+            return type + "." + (difficulty != null ? difficulty : "-") + "."
+                    + createdAt.getEpochSecond() + "." + createdAt.getNano() + "." + gameId;
+        }
+
+        public static OpenGame fromCursor(String cursor) {
+            String[] parts = cursor.split("\\.");
+            try {
+                return new OpenGame(Long.parseLong(parts[4]), GameType.valueOf(parts[0]),
+                        "-".equals(parts[1]) ? null : Difficulty.valueOf(parts[1]),
+                        Instant.ofEpochSecond(Long.parseLong(parts[2]), Long.parseLong(parts[3])), null);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    private final ConcurrentHashMap<Long, Long> gameByPlayer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, OpenGame> openGames = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<OpenGame> openOrder = new ConcurrentSkipListSet<>(ORDER);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        int total = 0;
+        List<GameRepository.GameActivity> page;
+        do {
+            page = gameRepository.findUnfinishedAfter(Game.GameState.FINISHED, afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (GameRepository.GameActivity game : page) {
+                addPlayer(game.getPlayer1Id(), game.getId());
+                addPlayer(game.getPlayer2Id(), game.getId());
+                if (game.getType() == GameType.MULTI_PLAYER && game.getPlayer2Id() == null) {
+                    open(game.getId(), game.getType(), game.getDifficulty(), game.getCreatedAt(), game.getPlayer1Name());
+                }
+                afterId = game.getId();
+            }
+            total += page.size();
+        } while (page.size() == LOAD_BATCH_SIZE);
+        if (total > 0) {
+            log.info("Indexed {} unfinished games, {} open", total, openGames.size());
+        }
+    }
+
+    /**
+     * Приводит индексы в соответствие с игрой; вызывается под блокировкой игры.
+     */
+    public void track(Game game) {
+        Long gameId = game.getId();
+        boolean finished = game.getState() == Game.GameState.FINISHED;
+        trackPlayer(game.getPlayer1(), gameId, finished);
+        trackPlayer(game.getPlayer2(), gameId, finished);
+        if (!finished && game.getType() == GameType.MULTI_PLAYER && game.getPlayer2() == null) {
+            if (!openGames.containsKey(gameId)) {
+                Player host = game.getPlayer1();
+                open(gameId, game.getType(), game.getDifficulty(), game.getCreatedAt(), host != null ? host.getUsername() : null);
+            }
+        } else {
+            close(gameId);
+        }
+    }
+
+    /**
+     * @return id незаконченной игры игрока или null
+     */
+    public Long findGame(Long playerId) {
+        return gameByPlayer.get(playerId);
+    }
+
+    /**
+     * Страница открытых игр по порядку (тип, сложность, время создания).
+     *
+     * @param type       только игры этого типа или null — любые
+     * @param difficulty только игры этой сложности или null — любые
+     * @param after      последняя игра предыдущей страницы или null — с начала
+     */
+    public List<OpenGame> browse(GameType type, Difficulty difficulty, OpenGame after, int limit) {
+        NavigableSet<OpenGame> tail;
+        if (after != null) {
+            tail = openOrder.tailSet(after, false);
+        } else if (type != null) {
+            tail = openOrder.tailSet(new OpenGame(Long.MIN_VALUE, type, difficulty, Instant.MIN, null), true);
+        } else {
+            tail = openOrder;
+        }
+
+        List<OpenGame> page = new ArrayList<>(limit);
+        for (OpenGame game : tail) {
+            // Игры одного типа и одной сложности идут подряд: вышли за диапазон — дальше нечего искать
+            if (type != null && game.type() != type) {
+                break;
+            }
+            if (difficulty != null && game.difficulty() != difficulty) {
+                if (type != null) {
+                    break;
+                }
+                continue;
+            }
+            page.add(game);
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    public int openCount() {
+        return openGames.size();
+    }
+
+    private void trackPlayer(Player player, Long gameId, boolean finished) {
+        if (player == null || player.getId() == null) {
+            return;
+        }
+        if (finished) {
+            gameByPlayer.remove(player.getId(), gameId);
+        } else {
+            gameByPlayer.put(player.getId(), gameId);
+        }
+    }
+
+    private void addPlayer(Long playerId, Long gameId) {
+        if (playerId != null) {
+            gameByPlayer.putIfAbsent(playerId, gameId);
+        }
+    }
+
+    private void open(Long gameId, GameType type, Difficulty difficulty, Instant createdAt, String host) {
+        // У игр, созданных до появления created_at, время неизвестно — они идут первыми
+        OpenGame game = new OpenGame(gameId, type, difficulty, createdAt != null ? createdAt : Instant.EPOCH, host);
+        if (openGames.putIfAbsent(gameId, game) == null) {
+            openOrder.add(game);
+        }
+    }
+
+    private void close(Long gameId) {
+        OpenGame game = openGames.remove(gameId);
+        if (game != null) {
+            openOrder.remove(game);
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package com.example.service;
 
+import com.example.dto.GameEvent;
+import com.example.dto.OpenGameView;
+import com.example.dto.OpenGamesPage;
+import com.example.metrics.Timed;
+import com.example.model.BoardStorage;
 import com.example.model.Game;
 import com.example.model.GameType;
+import com.example.exception.GameAccessDeniedException;
 import com.example.model.Player;
 import com.example.model.Difficulty;
+import com.example.model.User;
 import com.example.repository.GameRepository;
 import com.example.repository.PlayerRepository;
+import com.example.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -20,52 +32,199 @@ public class LobbyService {
     @Autowired
     private PlayerRepository playerRepository;
     
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private GameRegistry gameRegistry;
+    
+    @Autowired
+    private GamePersistenceService gamePersistenceService;
+    
+    @Autowired
+    private AiSessionCache aiSessionCache;
+    
+    @Autowired
+    private GameEventBus gameEventBus;
+    
+    @Autowired
+    private GameTimeouts gameTimeouts;
+    
+    @Autowired
+    private GameReaper gameReaper;
+    
+    @Autowired
+    private LobbyIndex lobbyIndex;
+    
+    @Value("${game.lobby.max-page-size:100}")
+    private int maxPageSize;
+    
+    @Value("${game.board.storage:CELLS}")
+    private BoardStorage boardStorage;
+    
     private final Map<Long, Player> waitingPlayers = new ConcurrentHashMap<>();
     
+    /**
+     * Новый игрок от имени пользователя из токена сессии.
+     */
+    public Player newPlayer(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return new Player(user);
+    }
+    
+    /**
+     * Игроки для пользователей в том же порядке; пользователи читаются одним запросом.
+     */
+    public List<Player> newPlayers(List<Long> userIds) {
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+        List<Player> players = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            User user = users.get(userId);
+            if (user == null) {
+                throw new RuntimeException("User not found");
+            }
+            players.add(new Player(user));
+        }
+        return players;
+    }
+    
+    @Timed("lobby.create_game")
     public Game createGame(Player player, GameType type, Difficulty difficulty) {
-        player = playerRepository.save(player);
-        Game game = new Game();
+        Game game = new Game(boardStorage);
         game.setPlayer1(player);
         game.setType(type);
         game.setDifficulty(difficulty);
-        return gameRepository.save(game);
+        if (type == GameType.SINGLE_PLAYER) {
+            aiSessionCache.placeShips(game);
+        }
+        Game saved = gameRegistry.register(gameRepository.save(game));
+        if (type == GameType.MULTI_PLAYER) {
+            gameEventBus.publishLobby(GameEvent.lobby(GameEvent.Type.GAME_CREATED, saved.getId(), type));
+        }
+        return saved;
+    }
+    
+    /**
+     * Создаёт сетевые игры сразу с обоими игроками, пары идут подряд: (0, 1), (2, 3), ...
+     * Игроки считаются готовыми; все игры сохраняются одной транзакцией.
+     */
+    @Timed("lobby.create_matches")
+    public List<Game> createMatches(List<Player> players) {
+        List<Game> games = new ArrayList<>(players.size() / 2);
+        for (int i = 0; i + 1 < players.size(); i += 2) {
+            Game game = new Game(boardStorage);
+            game.setType(GameType.MULTI_PLAYER);
+            game.setPlayer1(players.get(i));
+            game.setPlayer2(players.get(i + 1));
+            game.getPlayer1().setReady(true);
+            game.getPlayer2().setReady(true);
+            games.add(game);
+        }
+        List<Game> saved = gamePersistenceService.saveAll(games);
+        saved.forEach(gameRegistry::register);
+        return saved;
     }
     
+    @Timed("lobby.join_game")
     public Game joinGame(Long gameId, Player player) {
-        player = playerRepository.save(player);
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+        // Игра уже в памяти: проверяем до сохранения игрока, чтобы отказ не оставлял строк в players
+        gameRegistry.read(gameId, game -> {
+            checkCanJoin(game, player);
+            return null;
+        });
+        Player saved = playerRepository.save(player);
+        boolean[] joined = {false};
+        try {
+            return gameRegistry.update(gameId, game -> {
+                // Между проверкой и командой к игре мог присоединиться другой игрок
+                checkCanJoin(game, saved);
                 
+                game.setPlayer2(saved);
+                joined[0] = true;
+                game.bumpRevision();
+                gameRegistry.publishGame(GameEvent.player(GameEvent.Type.PLAYER_JOINED, gameId, saved.getId()));
+                gameRegistry.publishLobby(GameEvent.lobby(GameEvent.Type.GAME_FULL, gameId, game.getType()));
+                return game;
+            });
+        } catch (RuntimeException e) {
+            if (!joined[0]) {
+                playerRepository.delete(saved);
+            }
+            throw e;
+        }
+    }
+    
+    private static void checkCanJoin(Game game, Player player) {
         if (game.getPlayer2() != null) {
             throw new RuntimeException("Game is full");
         }
-        
-        game.setPlayer2(player);
-        return gameRepository.save(game);
+        if (player.getUser() != null && game.seatOf(player.getUser().getId()) != 0) {
+            throw new RuntimeException("Cannot join your own game");
+        }
     }
     
-    public Game setPlayerReady(Long gameId, Long playerId) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
-                
-        Player player = playerRepository.findById(playerId)
-                .orElseThrow(() -> new RuntimeException("Player not found"));
-                
-        if (game.getPlayer1().getId().equals(playerId)) {
-            game.getPlayer1().setReady(true);
-        } else if (game.getPlayer2() != null && game.getPlayer2().getId().equals(playerId)) {
-            game.getPlayer2().setReady(true);
-        } else {
-            throw new RuntimeException("Player not in game");
+    @Timed("lobby.set_player_ready")
+    public Game setPlayerReady(Long gameId, Long userId) {
+        return gameRegistry.update(gameId, game -> {
+            Player player = switch (game.seatOf(userId)) {
+                case 1 -> game.getPlayer1();
+                case 2 -> game.getPlayer2();
+                default -> throw new GameAccessDeniedException("Player not in game");
+            };
+            player.setReady(true);
+            game.bumpRevision();
+            gameRegistry.publishGame(GameEvent.player(GameEvent.Type.PLAYER_READY, gameId, player.getId()));
+            
+            if (game.getPlayer1().isReady() && 
+                (game.getType() == GameType.SINGLE_PLAYER || 
+                 (game.getPlayer2() != null && game.getPlayer2().isReady()))) {
+                Game.GameState stateBefore = game.getState();
+                game.setState(Game.GameState.PLACING_SHIPS);
+                if (stateBefore != Game.GameState.PLACING_SHIPS) {
+                    gameRegistry.publishGame(GameEvent.state(gameId, Game.GameState.PLACING_SHIPS));
+                }
+            }
+            
+            return game;
+        });
+    }
+    
+    /**
+     * Страница открытых игр из индекса лобби; cursor — значение next предыдущей страницы.
+     */
+    @Timed("lobby.browse_open_games")
+    public OpenGamesPage browseOpenGames(GameType type, Difficulty difficulty, String cursor, int limit) {
+        LobbyIndex.OpenGame after = cursor != null ? LobbyIndex.OpenGame.fromCursor(cursor) : null;
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        // Лишняя игра показывает, есть ли следующая страница
+        List<LobbyIndex.OpenGame> page = lobbyIndex.browse(type, difficulty, after, pageSize + 1);
+        List<OpenGameView> games = new ArrayList<>(pageSize);
+        for (LobbyIndex.OpenGame game : page.subList(0, Math.min(pageSize, page.size()))) {
+            games.add(new OpenGameView(game.gameId(), game.type(), game.difficulty(), game.createdAt(), game.host()));
+        }
+        String next = page.size() > pageSize ? page.get(pageSize - 1).cursor() : null;
+        return new OpenGamesPage(games, next);
+    }
+    
+    /**
+     * @return id незаконченной игры игрока или null; чужой игрок — GameAccessDeniedException
+     */
+    public Long findGameForPlayer(Long playerId, Long userId) {
+        Long gameId = lobbyIndex.findGame(playerId);
+        if (gameId == null) {
+            return null;
         }
-        
-        if (game.getPlayer1().isReady() && 
-            (game.getType() == GameType.SINGLE_PLAYER || 
-             (game.getPlayer2() != null && game.getPlayer2().isReady()))) {
-            game.setState(Game.GameState.PLACING_SHIPS);
+        boolean own = gameRegistry.read(gameId, game -> switch (game.seatOf(userId)) {
+            case 1 -> game.getPlayer1().getId().equals(playerId);
+            case 2 -> game.getPlayer2().getId().equals(playerId);
+            default -> false;
+        });
+        if (!own) {
+            throw new GameAccessDeniedException("Player belongs to another user");
         }
-        
-        return gameRepository.save(game);
+        return gameId;
     }
     
     public Map<Long, Player> getWaitingPlayers() {
@@ -75,9 +234,26 @@ public class LobbyService {
     public void addWaitingPlayer(Player player) {
         player = playerRepository.save(player);
         waitingPlayers.put(player.getId(), player);
+        gameTimeouts.trackWaitingPlayer(player.getId());
     }
     
     public void removeWaitingPlayer(Long playerId) {
         waitingPlayers.remove(playerId);
+        gameTimeouts.cancelWaitingPlayer(playerId);
+    }
+    
+    /**
+     * Убирает игроков, ждавших дольше game.timeouts.waiting-player-ms, и удаляет их из базы.
+     */
+    public void expireWaitingPlayers(List<Long> playerIds) {
+        List<Long> expired = new ArrayList<>(playerIds.size());
+        for (Long playerId : playerIds) {
+            if (waitingPlayers.remove(playerId) != null) {
+                expired.add(playerId);
+            }
+        }
+        if (!expired.isEmpty()) {
+            gameReaper.deletePlayers(expired);
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.example.service;
+
+import com.example.dto.GameEvent;
+import com.example.dto.MatchTicket;
+import com.example.exception.GameAccessDeniedException;
+import com.example.model.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Подбор соперников на сервере. Заявка без блокировок кладётся в очередь, а сопоставление
+ * идёт пачками по таймеру в одном потоке: накопленные заявки сортируются по рейтингу,
+ * соседние сводятся в пару, если разница рейтингов в пределах окна. Окно растёт со временем
+ * ожидания. Игры пачки создаются одной транзакцией, каждый участник узнаёт о своей игре
+ * по личному каналу заявки, так что ни лобби, ни популярные игры не получают лавину запросов.
+ */
+@Component
+public class Matchmaker {
+    private static final Logger log = LoggerFactory.getLogger(Matchmaker.class);
+
+    @Autowired
+    private LobbyService lobbyService;
+
+    @Autowired
+    private GameEventBus gameEventBus;
+
+    @Value("${game.matchmaking.default-rating:1000}")
+    private int defaultRating;
+
+    @Value("${game.matchmaking.rating-window:100}")
+    private int ratingWindow;
+
+    @Value("${game.matchmaking.window-growth-per-second:50}")
+    private int windowGrowthPerSecond;
+
+    @Value("${game.matchmaking.max-pairs-per-tick:500}")
+    private int maxPairsPerTick;
+
+    @Value("${game.matchmaking.ticket-timeout-ms:120000}")
+    private long ticketTimeoutMs;
+
+    private final ConcurrentLinkedQueue<Ticket> incoming = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Long, Ticket> tickets = new ConcurrentHashMap<>();
+    // Дальше — только для потока сопоставления: ожидающие заявки и завершённые в порядке завершения
+    private final List<Ticket> pool = new ArrayList<>();
+    private final ArrayDeque<Ticket> finished = new ArrayDeque<>();
+
+    public MatchTicket enqueue(Long userId, Integer rating) {
+        Ticket ticket;
+        do {
+            ticket = new Ticket(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, userId,
+                    rating != null ? rating : defaultRating, System.currentTimeMillis());
+        } while (tickets.putIfAbsent(ticket.id, ticket) != null);
+        incoming.add(ticket);
+        return ticket.toView();
+    }
+
+    /**
+     * @return заявка или null, если её нет или она давно завершена
+     */
+    public MatchTicket getTicket(Long ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        return ticket != null ? ticket.toView() : null;
+    }
+
+    /**
+     * Отменяет заявку, если пара для неё ещё не найдена. Отменить можно только свою заявку.
+     *
+     * @return заявка после отмены или null, если её нет
+     */
+    public MatchTicket cancel(Long ticketId, Long userId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            return null;
+        }
+        if (!ticket.userId.equals(userId)) {
+            throw new GameAccessDeniedException("Ticket belongs to another user");
+        }
+        ticket.status.compareAndSet(MatchTicket.Status.WAITING, MatchTicket.Status.CANCELLED);
+        return ticket.toView();
+    }
+
+    public int queueSize() {
+        return tickets.size();
+    }
+
+    @Scheduled(fixedDelayString = "${game.matchmaking.interval-ms:500}")
+    public void matchWaiting() {
+        long now = System.currentTimeMillis();
+        for (Ticket ticket; (ticket = incoming.poll()) != null; ) {
+            pool.add(ticket);
+        }
+        pool.removeIf(ticket -> {
+            if (now - ticket.enqueuedAt > ticketTimeoutMs
+                    && ticket.status.compareAndSet(MatchTicket.Status.WAITING, MatchTicket.Status.EXPIRED)) {
+                gameEventBus.publishTicket(ticket.id, new GameEvent(GameEvent.Type.MATCH_EXPIRED, null));
+            }
+            if (ticket.status.get() != MatchTicket.Status.WAITING) {
+                finish(ticket, now);
+                return true;
+            }
+            return false;
+        });
+        forgetFinished(now);
+        if (pool.size() < 2) {
+            return;
+        }
+
+        pool.sort(Comparator.comparingInt((Ticket ticket) -> ticket.rating).thenComparingLong(ticket -> ticket.enqueuedAt));
+        List<Ticket> matched = pair(now);
+        if (matched.isEmpty()) {
+            return;
+        }
+
+        List<Long> userIds = new ArrayList<>(matched.size());
+        for (Ticket ticket : matched) {
+            userIds.add(ticket.userId);
+        }
+        List<Game> games;
+        try {
+            games = lobbyService.createMatches(lobbyService.newPlayers(userIds));
+        } catch (RuntimeException e) {
+            log.error("Failed to create {} matched games, will retry", matched.size() / 2, e);
+            matched.forEach(ticket -> ticket.status.set(MatchTicket.Status.WAITING));
+            return;
+        }
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(i);
+            complete(matched.get(2 * i), game.getId(), game.getPlayer1().getId());
+            complete(matched.get(2 * i + 1), game.getId(), game.getPlayer2().getId());
+        }
+        pool.removeIf(ticket -> ticket.status.get() == MatchTicket.Status.MATCHED);
+        matched.forEach(ticket -> finish(ticket, now));
+    }
+
+    // Соседние по рейтингу заявки подряд: (0, 1), (2, 3), ...; каждая уже переведена в MATCHING
+    private List<Ticket> pair(long now) {
+        List<Ticket> matched = new ArrayList<>();
+        int i = 0;
+        while (i + 1 < pool.size() && matched.size() < 2 * maxPairsPerTick) {
+            Ticket first = pool.get(i);
+            Ticket second = pool.get(i + 1);
+            // Пара подходит, если укладывается в окно того, кто ждёт дольше.
+            // Две заявки одного пользователя в пару не сводятся
+            long window = Math.max(window(first, now), window(second, now));
+            if ((long) second.rating - first.rating <= window && !first.userId.equals(second.userId) && first.claim()) {
+                if (second.claim()) {
+                    matched.add(first);
+                    matched.add(second);
+                    i += 2;
+                    continue;
+                }
+                first.status.set(MatchTicket.Status.WAITING);
+            }
+            i++;
+        }
+        return matched;
+    }
+
+    private long window(Ticket ticket, long now) {
+        return ratingWindow + windowGrowthPerSecond * ((now - ticket.enqueuedAt) / 1000);
+    }
+
+    private void complete(Ticket ticket, Long gameId, Long playerId) {
+        ticket.gameId = gameId;
+        ticket.playerId = playerId;
+        ticket.status.set(MatchTicket.Status.MATCHED);
+        gameEventBus.publishTicket(ticket.id, GameEvent.player(GameEvent.Type.MATCH_FOUND, gameId, playerId));
+    }
+
+    private void finish(Ticket ticket, long now) {
+        ticket.finishedAt = now;
+        finished.addLast(ticket);
+    }
+
+    // Завершённые заявки ещё ticket-timeout-ms отдаются по id, потом забываются
+    private void forgetFinished(long now) {
+        while (!finished.isEmpty() && now - finished.peekFirst().finishedAt > ticketTimeoutMs) {
+            tickets.remove(finished.pollFirst().id);
+        }
+    }
+
+    private static final class Ticket {
+        private final long id;
+        private final Long userId;
+        private final int rating;
+        private final long enqueuedAt;
+        private final AtomicReference<MatchTicket.Status> status = new AtomicReference<>(MatchTicket.Status.WAITING);
+        private volatile Long gameId;
+        private volatile Long playerId;
+        private long finishedAt;
+
+        private Ticket(long id, Long userId, int rating, long enqueuedAt) {
+            this.id = id;
+            this.userId = userId;
+            this.rating = rating;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private boolean claim() {
+            return status.compareAndSet(MatchTicket.Status.WAITING, MatchTicket.Status.MATCHING);
+        }
+
+        private MatchTicket toView() {
+            MatchTicket.Status current = status.get();
+            return new MatchTicket(id, current, rating, gameId, playerId);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.model.GameMove;
+import com.example.model.Ship;
+import com.example.repository.GameMoveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Журнал ходов: каждая расстановка корабля и выстрел дописываются одной строкой в game_moves.
+ * Снимком состояния служит сохранение игры из GameRegistry — вместе с ним сохраняется
+ * Game.journalSeq, и при восстановлении повторяются только более поздние ходы.
+ */
+@Component
+public class MoveJournal {
+    @Autowired
+    private GameMoveRepository gameMoveRepository;
+    
+    @Value("${game.journal.enabled:false}")
+    private boolean enabled;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void appendPlaceShip(Game game, int x, int y, boolean horizontal, int size) {
+        append(game, GameMove.MoveType.PLACE_SHIP, x, y, horizontal, size);
+    }
+    
+    // Весь флот одним saveAll: ключи назначены заранее, поэтому строки уходят одной пачкой
+    public void appendFleet(Game game, List<Ship> ships) {
+        if (!enabled) {
+            return;
+        }
+        List<GameMove> moves = new ArrayList<>(ships.size());
+        int seq = game.getJournalSeq();
+        for (Ship ship : ships) {
+            moves.add(new GameMove(game.getId(), ++seq, GameMove.MoveType.PLACE_SHIP,
+                    ship.getStartX(), ship.getStartY(), ship.isHorizontal(), ship.getSize()));
+        }
+        gameMoveRepository.saveAll(moves);
+        game.setJournalSeq(seq);
+    }
+    
+    public void appendShot(Game game, int x, int y, boolean isPlayerMove) {
+        append(game, GameMove.MoveType.SHOT, x, y, isPlayerMove, 0);
+    }
+    
+    public List<GameMove> findUnapplied(Game game) {
+        return gameMoveRepository.findByGameIdAndSeqGreaterThanOrderBySeq(game.getId(), game.getJournalSeq());
+    }
+    
+    public List<Long> findGamesToRecover() {
+        return gameMoveRepository.findGameIdsWithUnappliedMoves(Game.GameState.FINISHED);
+    }
+    
+    private void append(Game game, GameMove.MoveType type, int x, int y, boolean flag, int size) {
+        if (!enabled) {
+            return;
+        }
+        int seq = game.getJournalSeq() + 1;
+        gameMoveRepository.save(new GameMove(game.getId(), seq, type, x, y, flag, size));
+        game.setJournalSeq(seq);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Подписанные HMAC-SHA256 токены сессии. Токен — base64url(данные).base64url(подпись), данные:
+ * [версия][id пользователя, 8 байт][срок в секундах эпохи, 8 байт][имя в UTF-8].
+ * Проверка — одна HMAC и сравнение, без базы и без BCrypt, поэтому проверять токен можно на каждом запросе.
+ * Без game.auth.token-secret ключ случайный, и токены перестают действовать после перезапуска.
+ */
+@Service
+public class SessionTokenService {
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 1 + Long.BYTES + Long.BYTES;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Пользователь, от имени которого выполняется запрос.
+     */
+    public record SessionUser(Long userId, String username, long expiresAt) {
+    }
+
+    private final SecretKeySpec key;
+    private final long ttlMs;
+    // Mac не потокобезопасен, а создавать его на каждый запрос дорого
+    private final ThreadLocal<Mac> macs;
+
+    public SessionTokenService(@Value("${game.auth.token-secret:}") String secret,
+                               @Value("${game.auth.token-ttl-ms:86400000}") long ttlMs) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            log.warn("game.auth.token-secret is not set, using a random key: tokens will not survive a restart");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlMs = ttlMs;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String issue(Long userId, String username) {
+        long expiresAt = (System.currentTimeMillis() + ttlMs) / 1000;
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(HEADER_BYTES + name.length)
+                .put(VERSION)
+                .putLong(userId)
+                .putLong(expiresAt)
+                .put(name)
+                .array();
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * @return пользователь токена или null, если токен испорчен, подделан или истёк
+     */
+    public SessionUser verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (payload.length < HEADER_BYTES || payload[0] != VERSION
+                || !MessageDigest.isEqual(sign(payload), signature)) {
+            return null;
+        }
+        // Декодер не проверяет лишние биты последнего символа: у подписи ровно одна запись
+        if (!ENCODER.encodeToString(signature).equals(token.substring(dot + 1))) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 1, payload.length - 1);
+        long userId = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        if (expiresAt * 1000 <= System.currentTimeMillis()) {
+            return null;
+        }
+        String username = new String(payload, HEADER_BYTES, payload.length - HEADER_BYTES, StandardCharsets.UTF_8);
+        return new SessionUser(userId, username, expiresAt);
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
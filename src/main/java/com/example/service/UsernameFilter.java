@@ -0,0 +1,65 @@
+package com.example.service;
+
+import com.example.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Занятые имена пользователей в фильтре Блума: «свободно» отвечается без запроса к базе,
+ * «возможно занято» проверяется в базе. Фильтр заполняется из users при старте и пополняется
+ * при регистрации на этом узле; регистрации на других узлах он не видит, поэтому окончательно
+ * занятость имени решает уникальный индекс users.username.
+ */
+@Component
+public class UsernameFilter {
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final BloomFilter filter;
+    // Пока фильтр не заполнен, любое имя считается возможно занятым
+    private volatile boolean loaded;
+
+    public UsernameFilter(@Value("${game.auth.username-filter.expected-users:1000000}") long expectedUsers,
+                          @Value("${game.auth.username-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.filter = new BloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        int total = 0;
+        List<UserRepository.UserName> page;
+        do {
+            page = userRepository.findUsernamesAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (UserRepository.UserName user : page) {
+                filter.add(user.getUsername());
+                afterId = user.getId();
+            }
+            total += page.size();
+        } while (page.size() == LOAD_BATCH_SIZE);
+        loaded = true;
+        log.info("Loaded {} usernames into the username filter", total);
+    }
+
+    /**
+     * @return false, если имя точно свободно; true — если оно может быть занято
+     */
+    public boolean mightExist(String username) {
+        return !loaded || filter.mightContain(username);
+    }
+
+    public void add(String username) {
+        filter.add(username);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ai;
+
+import com.example.model.Difficulty;
+import com.example.model.GameBoard;
+import com.example.model.ShotResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiStateCodecTests {
+
+	@Test
+	void restoredAiContinuesTheGame() {
+		GameBoard board = new GameBoard();
+		BattleshipAI ai = new BattleshipAI(Difficulty.HARD);
+		ai.placeShips(board);
+		assertTrue(board.areAllShipsPlaced());
+
+		for (int i = 0; i < 30; i++) {
+			shoot(ai, board);
+		}
+		byte[] state = AiStateCodec.encode(ai);
+		assertTrue(state.length <= 115);
+
+		BattleshipAI restored = AiStateCodec.restore(new BattleshipAI(Difficulty.HARD), state);
+		assertArrayEquals(state, AiStateCodec.encode(restored));
+
+		int shots = 30;
+		while (!board.areAllShipsSunk()) {
+			shoot(restored, board);
+			assertTrue(++shots <= 100);
+		}
+	}
+
+	private static void shoot(BattleshipAI ai, GameBoard board) {
+		int[] move = ai.makeMove(board);
+		ShotResult result = board.shoot(move[0], move[1]);
+		assertNotEquals(ShotResult.INVALID, result);
+		ai.updateStrategy(move[0], move[1], result != ShotResult.MISS, result == ShotResult.SUNK);
+	}
+}
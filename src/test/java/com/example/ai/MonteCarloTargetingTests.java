@@ -0,0 +1,58 @@
+package com.example.ai;
+
+import com.example.model.BoardStorage;
+import com.example.model.GameBoard;
+import com.example.model.Ship;
+import com.example.model.ShotResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloTargetingTests {
+
+	private static final MonteCarloTargeting.Settings SEEDED = new MonteCarloTargeting.Settings(2_000, Duration.ZERO, 42L);
+
+	@Test
+	void seededSamplingDoesNotDependOnParallelism() {
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool parallel = new ForkJoinPool(4);
+		try {
+			assertEquals(playOut(single), playOut(parallel));
+		} finally {
+			single.shutdown();
+			parallel.shutdown();
+		}
+	}
+
+	@Test
+	void sinksWholeFleet() {
+		List<Integer> shots = playOut(ForkJoinPool.commonPool());
+		assertTrue(shots.size() < 100);
+	}
+
+	private List<Integer> playOut(ForkJoinPool pool) {
+		GameBoard board = new GameBoard(BoardStorage.PACKED);
+		int[][] fleet = {{0, 0, 4}, {0, 2, 3}, {5, 2, 3}, {0, 4, 2}, {4, 4, 2}, {8, 4, 2}, {0, 6, 1}, {2, 6, 1}, {4, 6, 1}, {6, 6, 1}};
+		for (int[] ship : fleet) {
+			assertTrue(board.placeShip(new Ship(ship[0], ship[1], true, ship[2])));
+		}
+
+		MonteCarloTargeting targeting = new MonteCarloTargeting(new Random(7), SEEDED, pool);
+		List<Integer> shots = new ArrayList<>();
+		while (!board.areAllShipsSunk()) {
+			int cell = targeting.nextShot(board);
+			ShotResult result = board.shoot(cell / 10, cell % 10);
+			assertNotEquals(ShotResult.INVALID, result);
+			targeting.onShotResult(cell / 10, cell % 10, result != ShotResult.MISS, result == ShotResult.SUNK);
+			shots.add(cell);
+		}
+		return shots;
+	}
+
+}
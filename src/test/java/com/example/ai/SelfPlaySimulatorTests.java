@@ -0,0 +1,21 @@
+package com.example.ai;
+
+import com.example.model.Difficulty;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlaySimulatorTests {
+
+	@Test
+	void resultsDoNotDependOnThreadCount() {
+		SelfPlaySimulator.Report single = SelfPlaySimulator.run(new SelfPlaySimulator.Config(Difficulty.HARD, null, 600, 7L, 1, 0));
+		SelfPlaySimulator.Report parallel = SelfPlaySimulator.run(new SelfPlaySimulator.Config(Difficulty.HARD, null, 600, 7L, 4, 0));
+
+		assertEquals(600, single.getWinsA() + single.getWinsB());
+		assertEquals(single.getWinsA(), parallel.getWinsA());
+		assertEquals(single.getMeanShotsToWinA(), parallel.getMeanShotsToWinA());
+		assertEquals(single.getLatencyA().getCount(), parallel.getLatencyA().getCount());
+		assertTrue(single.getWinsA() > single.getWinsB());
+	}
+}
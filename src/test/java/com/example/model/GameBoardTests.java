@@ -0,0 +1,109 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameBoardTests {
+
+	@Test
+	void rejectsTouchingAndOutOfBoundsShips() {
+		GameBoard board = new GameBoard();
+		assertTrue(board.placeShip(new Ship(0, 0, true, 4)));
+		assertFalse(board.placeShip(new Ship(4, 1, false, 1)));
+		assertFalse(board.placeShip(new Ship(7, 5, true, 4)));
+		assertFalse(board.placeShip(new Ship(5, 12, true, 1)));
+		assertTrue(board.placeShip(new Ship(5, 0, false, 3)));
+	}
+
+	@Test
+	void shootsAndSinksShips() {
+		GameBoard board = new GameBoard();
+		Ship ship = new Ship(2, 3, false, 2);
+		board.placeShip(ship);
+
+		assertEquals(ShotResult.MISS, board.shoot(0, 0));
+		assertEquals(ShotResult.INVALID, board.shoot(0, 0));
+		assertEquals(ShotResult.HIT, board.shoot(2, 3));
+		assertFalse(board.areAllShipsSunk());
+		assertEquals(ShotResult.SUNK, board.shoot(2, 4));
+		assertTrue(ship.isSunk());
+		assertTrue(board.areAllShipsSunk());
+		assertEquals(Cell.CellState.HIT, board.getCellState(2, 4));
+		assertEquals(Cell.CellState.MISS, board.getCellState(0, 0));
+	}
+
+	@Test
+	void rebuildsEngineFromPersistedCells() {
+		GameBoard board = new GameBoard();
+		board.placeShip(new Ship(5, 5, true, 3));
+		board.shoot(5, 5);
+		board.shoot(9, 9);
+
+		GameBoard loaded = new GameBoard();
+		loaded.setCells(board.getCells());
+		loaded.setShips(board.getShips());
+
+		assertEquals(Cell.CellState.HIT, loaded.getCellState(5, 5));
+		assertEquals(Cell.CellState.SHIP, loaded.getCellState(6, 5));
+		assertFalse(loaded.canShoot(9, 9));
+		assertEquals(ShotResult.HIT, loaded.shoot(6, 5));
+		assertEquals(ShotResult.SUNK, loaded.shoot(7, 5));
+	}
+
+	@Test
+	void refusesToRebuildBoardWithTouchingStoredShips() {
+		GameBoard board = new GameBoard();
+		board.placeShip(new Ship(0, 0, true, 2));
+
+		GameBoard loaded = new GameBoard();
+		loaded.setCells(board.getCells());
+		loaded.setShips(new ArrayList<>(board.getShips()));
+		loaded.getShips().add(new Ship(2, 0, true, 1));
+
+		assertThrows(IllegalStateException.class, () -> loaded.getCellState(0, 0));
+	}
+
+	@Test
+	void storesOnlyShipAndShotCells() {
+		GameBoard board = new GameBoard();
+		assertTrue(board.getCells().isEmpty());
+		assertEquals(".".repeat(100), board.render(true));
+
+		board.placeShip(new Ship(5, 5, true, 3));
+		board.shoot(5, 5);
+		board.shoot(0, 0);
+		board.shoot(0, 0);
+		assertEquals(4, board.getCells().size());
+		assertEquals(Cell.CellState.EMPTY, board.getCellState(9, 9));
+
+		GameBoard empty = new GameBoard(BoardStorage.PACKED);
+		assertNull(empty.getPackedState());
+		assertEquals(ShotResult.MISS, empty.shoot(3, 3));
+		GameBoard loaded = new GameBoard(BoardStorage.PACKED);
+		loaded.setPackedState(empty.getPackedState());
+		assertEquals(Cell.CellState.MISS, loaded.getCellState(3, 3));
+	}
+
+	@Test
+	void packedBoardRoundTripsThroughCodec() {
+		GameBoard board = new GameBoard(BoardStorage.PACKED);
+		board.placeShip(new Ship(0, 0, true, 4));
+		board.placeShip(new Ship(9, 6, false, 4));
+		board.shoot(1, 0);
+		board.shoot(5, 5);
+		assertTrue(board.getCells().isEmpty());
+		assertEquals(2 + 2 * 2 + 13, board.getPackedState().length);
+
+		GameBoard loaded = new GameBoard(BoardStorage.PACKED);
+		loaded.setPackedState(board.getPackedState());
+
+		assertEquals(Cell.CellState.HIT, loaded.getCellState(1, 0));
+		assertEquals(Cell.CellState.MISS, loaded.getCellState(5, 5));
+		assertEquals(Cell.CellState.SHIP, loaded.getCellState(9, 9));
+		assertFalse(loaded.isValidShipPlacement(new Ship(8, 5, false, 1)));
+	}
+
+}
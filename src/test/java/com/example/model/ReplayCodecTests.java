@@ -0,0 +1,47 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayCodecTests {
+
+	@Test
+	void keepsBoardsAndShotOrder() {
+		BoardEngine playerBoard = new BoardEngine();
+		BoardEngine aiBoard = new BoardEngine();
+		playerBoard.place(0, 0, true, 2);
+		aiBoard.place(5, 5, false, 3);
+
+		byte[] log = null;
+		aiBoard.shoot(5, 5);
+		log = ReplayCodec.appendShot(log, BoardEngine.index(5, 5), false);
+		playerBoard.shoot(9, 9);
+		log = ReplayCodec.appendShot(log, BoardEngine.index(9, 9), true);
+		aiBoard.shoot(5, 6);
+		log = ReplayCodec.appendShot(log, BoardEngine.index(5, 6), false);
+
+		ReplayCodec.Replay replay = ReplayCodec.decode(ReplayCodec.encode(playerBoard, aiBoard, log));
+		assertEquals(1, replay.playerBoard().getShipCount());
+		assertTrue(replay.playerBoard().isMiss(BoardEngine.index(9, 9)));
+		assertEquals(aiBoard.isShipHorizontal(1), replay.aiBoard().isShipHorizontal(1));
+		assertTrue(replay.aiBoard().isHit(BoardEngine.index(5, 6)));
+		assertEquals(3, replay.shots().length);
+		assertEquals(BoardEngine.index(9, 9), replay.shotCell(1));
+		assertTrue(replay.isShotAtPlayerBoard(1));
+		assertFalse(replay.isShotAtPlayerBoard(2));
+	}
+
+	@Test
+	void dropsIncompleteShotLog() {
+		BoardEngine aiBoard = new BoardEngine();
+		aiBoard.place(0, 0, true, 1);
+		aiBoard.shoot(0, 0);
+		aiBoard.shoot(3, 3);
+
+		byte[] log = ReplayCodec.appendShot(null, BoardEngine.index(3, 3), false);
+		ReplayCodec.Replay replay = ReplayCodec.decode(ReplayCodec.encode(new BoardEngine(), aiBoard, log));
+		assertNull(replay.shots());
+		assertTrue(replay.aiBoard().allShipsSunk());
+	}
+}
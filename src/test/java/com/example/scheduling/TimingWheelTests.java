@@ -0,0 +1,73 @@
+package com.example.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTests {
+
+	@Test
+	void expiresOnlyDueTimersAndHonoursRescheduleAndCancel() {
+		TimingWheel<Long> wheel = new TimingWheel<>(10, 8, 0);
+		wheel.schedule(1L, 25);
+		wheel.schedule(2L, 25);
+		wheel.schedule(3L, 40);
+		// Больше одного оборота колеса: та же корзина, что у срока 25, но оборот позже
+		wheel.schedule(4L, 25 + 8 * 10);
+
+		wheel.schedule(2L, 200);
+		assertTrue(wheel.cancel(3L));
+		assertFalse(wheel.cancel(3L));
+
+		assertEquals(List.of(), wheel.advance(20, 100));
+		assertEquals(List.of(1L), wheel.advance(30, 100));
+		assertEquals(List.of(), wheel.advance(90, 100));
+		assertEquals(List.of(4L), wheel.advance(110, 100));
+		assertTrue(wheel.isScheduled(2L));
+		assertEquals(1, wheel.size());
+	}
+
+	@Test
+	void longPauseAndLimitDoNotLoseTimers() {
+		TimingWheel<Integer> wheel = new TimingWheel<>(10, 16, 0);
+		for (int i = 0; i < 100; i++) {
+			wheel.schedule(i, 10 + i * 37L);
+		}
+		// Пропущено много оборотов, а за вызов снимается не больше 30 таймеров
+		int expired = 0;
+		for (int call = 0; call < 10; call++) {
+			expired += wheel.advance(100_000, 30).size();
+		}
+		assertEquals(100, expired);
+		assertEquals(0, wheel.size());
+
+		// Просроченный на момент постановки срок срабатывает на следующем тике
+		wheel.schedule(7, 50);
+		assertEquals(List.of(7), wheel.advance(100_010, 30));
+	}
+
+	@Test
+	void schedulesFromManyThreadsWithoutLosingTimers() throws InterruptedException {
+		TimingWheel<Integer> wheel = new TimingWheel<>(10, 64, 0);
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			int offset = t * 1000;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					wheel.schedule(offset + i, 10_000);
+					// Перестановка на более ранний срок должна победить
+					wheel.schedule(offset + i, 50);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(4000, wheel.size());
+		assertEquals(4000, wheel.advance(60, 10_000).size());
+		assertEquals(0, wheel.size());
+	}
+}
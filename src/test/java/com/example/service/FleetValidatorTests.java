@@ -0,0 +1,54 @@
+package com.example.service;
+
+import com.example.dto.FleetPlacementResponse.ShipError;
+import com.example.dto.ShipPlacement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetValidatorTests {
+
+	private final FleetValidator validator = new FleetValidator();
+
+	private static List<ShipPlacement> standardFleet() {
+		List<ShipPlacement> ships = new ArrayList<>();
+		ships.add(new ShipPlacement(0, 0, true, 4));
+		ships.add(new ShipPlacement(0, 2, true, 3));
+		ships.add(new ShipPlacement(5, 2, true, 3));
+		ships.add(new ShipPlacement(0, 4, true, 2));
+		ships.add(new ShipPlacement(4, 4, true, 2));
+		ships.add(new ShipPlacement(8, 4, true, 2));
+		ships.add(new ShipPlacement(0, 6, true, 1));
+		ships.add(new ShipPlacement(2, 6, true, 1));
+		ships.add(new ShipPlacement(4, 6, true, 1));
+		ships.add(new ShipPlacement(6, 6, true, 1));
+		return ships;
+	}
+
+	@Test
+	void acceptsStandardFleet() {
+		assertTrue(validator.validate(standardFleet()).isEmpty());
+	}
+
+	@Test
+	void reportsEachBadShipAndComposition() {
+		List<ShipPlacement> ships = standardFleet();
+		// Касается корабля 0 по диагонали
+		ships.set(1, new ShipPlacement(4, 1, true, 3));
+		// Выходит за поле
+		ships.set(2, new ShipPlacement(8, 2, true, 3));
+		// Лишний четырёхпалубный вместо однопалубного
+		ships.set(9, new ShipPlacement(0, 8, true, 4));
+
+		List<ShipError> errors = validator.validate(ships);
+
+		assertEquals(Integer.valueOf(1), errors.get(0).getShipIndex());
+		assertTrue(errors.get(0).getMessage().endsWith("ship 0"));
+		assertEquals(Integer.valueOf(2), errors.get(1).getShipIndex());
+		assertEquals(2, errors.stream().filter(error -> error.getShipIndex() == null).count());
+		assertEquals(4, errors.size());
+	}
+}
@@ -0,0 +1,197 @@
+package com.example.service;
+
+import com.example.dto.GameEvent;
+import com.example.dto.ShipPlacement;
+import com.example.model.Cell;
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Write-behind реестра на H2: фоновые сохранение и выгрузка отложены и вызываются из тестов.
+ * Гонку с другим узлом изображает увеличение версии игры прямо в базе.
+ */
+@SpringBootTest(properties = {
+		"game.journal.enabled=true",
+		"game.registry.flush-interval-ms=3600000",
+		"game.registry.eviction-interval-ms=3600000",
+		"game.registry.idle-timeout-ms=0",
+		"game.timeouts.reap-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class GameRegistryTests {
+
+	private static final int[][] FLEET = {{0, 0, 4}, {0, 2, 3}, {5, 2, 3}, {0, 4, 2}, {4, 4, 2}, {8, 4, 2},
+			{0, 6, 1}, {2, 6, 1}, {4, 6, 1}, {6, 6, 1}};
+
+	@Autowired
+	private GameService gameService;
+
+	@Autowired
+	private GameRegistry gameRegistry;
+
+	@Autowired
+	private GamePersistenceService gamePersistenceService;
+
+	@Autowired
+	private MoveJournal moveJournal;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private GameEventBus gameEventBus;
+
+	private Game newGame() {
+		User user = userRepository.save(new User("registry" + System.nanoTime(), "password", null));
+		return gameService.createGame(new Player(user));
+	}
+
+	private static Long userOf(Game game) {
+		return game.getPlayer1().getUser().getId();
+	}
+
+	// Игру сохранили с другого узла: версия в базе ушла вперёд копии в памяти
+	private void saveElsewhere(Long gameId) {
+		jdbcTemplate.update("update games set version = version + 1 where id = ?", gameId);
+	}
+
+	private Game stored(Long gameId) {
+		return gamePersistenceService.load(gameId).orElseThrow();
+	}
+
+	private static List<ShipPlacement> fleet() {
+		List<ShipPlacement> fleet = new ArrayList<>();
+		for (int[] ship : FLEET) {
+			fleet.add(new ShipPlacement(ship[0], ship[1], true, ship[2]));
+		}
+		return fleet;
+	}
+
+	@Test
+	void flushConflictReloadsGameAndKeepsJournaledMoves() {
+		Game game = newGame();
+		Long gameId = game.getId();
+		assertTrue(gameService.placeShip(gameId, userOf(game), 0, 0, true, 4));
+		saveElsewhere(gameId);
+
+		gameRegistry.flushDirty();
+
+		// Копия заменена свежей из базы, ход из журнала повторён поверх неё
+		assertEquals(Cell.CellState.SHIP, gameRegistry.readIfLoaded(gameId, g -> g.getPlayerBoard().getCellState(3, 0)));
+		assertEquals(1, (int) gameRegistry.readIfLoaded(gameId, Game::getJournalSeq));
+		assertEquals(Cell.CellState.EMPTY, stored(gameId).getPlayerBoard().getCellState(3, 0));
+
+		// Повторённый ход ещё не сохранён; следующий проход сохраняет его без конфликта
+		gameRegistry.flushDirty();
+		Game stored = stored(gameId);
+		assertEquals(Cell.CellState.SHIP, stored.getPlayerBoard().getCellState(3, 0));
+		assertEquals(1, stored.getJournalSeq());
+	}
+
+	@Test
+	void failedBatchIsFlushedOneByOne() {
+		Game stale = newGame();
+		Game fresh = newGame();
+		assertTrue(gameService.placeShip(stale.getId(), userOf(stale), 0, 0, true, 4));
+		assertTrue(gameService.placeShip(fresh.getId(), userOf(fresh), 0, 0, true, 4));
+		saveElsewhere(stale.getId());
+
+		gameRegistry.flushDirty();
+
+		// Конфликт одной игры не мешает сохранить другую из той же пачки
+		assertEquals(Cell.CellState.SHIP, stored(fresh.getId()).getPlayerBoard().getCellState(3, 0));
+		gameRegistry.flushDirty();
+		assertEquals(Cell.CellState.SHIP, stored(stale.getId()).getPlayerBoard().getCellState(3, 0));
+	}
+
+	@Test
+	void lostStateChangeWithoutJournalAsksToRetry() {
+		Game game = newGame();
+		Long gameId = game.getId();
+		List<ShipPlacement> fleet = fleet();
+		saveElsewhere(gameId);
+		ReflectionTestUtils.setField(moveJournal, "enabled", false);
+		try {
+			// Старт игры сохраняется сразу; без журнала проигравшая гонку копия теряет изменения
+			RuntimeException e = assertThrows(RuntimeException.class,
+					() -> gameService.placeFleet(gameId, userOf(game), fleet));
+			assertTrue(e.getMessage().contains("please retry"));
+		} finally {
+			ReflectionTestUtils.setField(moveJournal, "enabled", true);
+		}
+		assertEquals(Game.GameState.PLACING_SHIPS, gameRegistry.readIfLoaded(gameId, Game::getState));
+		assertEquals(0, (int) gameRegistry.readIfLoaded(gameId, g -> g.getPlayerBoard().countPlacedShips()));
+
+		// Перечитанная копия актуальна, повтор команды проходит
+		assertTrue(gameService.placeFleet(gameId, userOf(game), fleet).isPlaced());
+		assertEquals(Game.GameState.IN_PROGRESS, stored(gameId).getState());
+	}
+
+	@Test
+	void evictionFlushesDirtyGameBeforeUnloading() throws InterruptedException {
+		Game game = newGame();
+		Long gameId = game.getId();
+		assertTrue(gameService.placeShip(gameId, userOf(game), 0, 0, true, 4));
+		Thread.sleep(5);
+
+		gameRegistry.evictIdle();
+
+		assertNull(gameRegistry.readIfLoaded(gameId, Game::getId));
+		assertEquals(Cell.CellState.SHIP, stored(gameId).getPlayerBoard().getCellState(3, 0));
+	}
+
+	@Test
+	void eventsArePublishedOnlyAfterCommandSucceeds() {
+		Game game = newGame();
+		Long gameId = game.getId();
+		List<GameEvent> published = new ArrayList<>();
+		ReflectionTestUtils.setField(gameRegistry, "gameEventBus", new GameEventBus() {
+			@Override
+			public void publishGame(GameEvent event) {
+				published.add(event);
+			}
+		});
+		try {
+			// Упавшая команда: её событие не рассылается
+			assertThrows(RuntimeException.class, () -> gameRegistry.update(gameId, g -> {
+				gameRegistry.publishGame(GameEvent.state(gameId, Game.GameState.IN_PROGRESS));
+				throw new RuntimeException("boom");
+			}));
+			assertTrue(published.isEmpty());
+
+			// Старт игры проиграл гонку и потерян: уходит только просьба перечитать игру
+			saveElsewhere(gameId);
+			ReflectionTestUtils.setField(moveJournal, "enabled", false);
+			try {
+				assertThrows(RuntimeException.class, () -> gameService.placeFleet(gameId, userOf(game), fleet()));
+			} finally {
+				ReflectionTestUtils.setField(moveJournal, "enabled", true);
+			}
+			assertEquals(1, published.size());
+			assertEquals(Game.GameState.PLACING_SHIPS, published.get(0).getState());
+
+			published.clear();
+			assertTrue(gameService.placeFleet(gameId, userOf(game), fleet()).isPlaced());
+			assertEquals(1, published.size());
+			assertEquals(Game.GameState.IN_PROGRESS, published.get(0).getState());
+		} finally {
+			ReflectionTestUtils.setField(gameRegistry, "gameEventBus", gameEventBus);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.service;
+
+import com.example.model.Difficulty;
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.model.Player;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Восстановление из журнала: игра выгружается без сохранения, так что сохранённый снимок
+ * отстаёт от журнала, и GameService.recoverFromJournal повторяет недостающие ходы.
+ */
+@SpringBootTest(properties = {
+		"game.journal.enabled=true",
+		"game.registry.flush-interval-ms=3600000",
+		"game.registry.eviction-interval-ms=3600000",
+		"game.timeouts.reap-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class GameRulesTests {
+
+	private static final int[][] FLEET = {{0, 0, 4}, {0, 2, 3}, {5, 2, 3}, {0, 4, 2}, {4, 4, 2}, {8, 4, 2},
+			{0, 6, 1}, {2, 6, 1}, {4, 6, 1}, {6, 6, 1}};
+
+	@Autowired
+	private GameService gameService;
+
+	@Autowired
+	private LobbyService lobbyService;
+
+	@Autowired
+	private GameRegistry gameRegistry;
+
+	@Autowired
+	private GamePersistenceService gamePersistenceService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private record Snapshot(String playerBoard, String aiBoard, boolean playerTurn, Game.GameState state,
+							int journalSeq, List<Byte> aiState) {
+		static Snapshot of(Game game) {
+			byte[] ai = game.getAiState() != null ? game.getAiState() : new byte[0];
+			Byte[] boxed = new Byte[ai.length];
+			for (int i = 0; i < ai.length; i++) {
+				boxed[i] = ai[i];
+			}
+			return new Snapshot(game.getPlayerBoard().render(true), game.getAiBoard().render(true),
+					game.isPlayerTurn(), game.getState(), game.getJournalSeq(), List.of(boxed));
+		}
+	}
+
+	// Изменения в памяти теряются, как при падении узла; в базе остаётся последний снимок
+	private Snapshot crash(Long gameId) {
+		Snapshot before = gameRegistry.readIfLoaded(gameId, Snapshot::of);
+		gameRegistry.remove(List.of(gameId));
+		return before;
+	}
+
+	@Test
+	void recoveryReplaysJournaledPlacementsAndShots() {
+		User user = userRepository.save(new User("journal" + System.nanoTime(), "password", null));
+		Game game = lobbyService.createGame(new Player(user), GameType.SINGLE_PLAYER, Difficulty.HARD);
+		Long gameId = game.getId();
+
+		// Девять кораблей: состояние не меняется, игра в базе остаётся пустой
+		for (int i = 0; i < FLEET.length - 1; i++) {
+			assertTrue(gameService.placeShip(gameId, user.getId(), FLEET[i][0], FLEET[i][1], true, FLEET[i][2]));
+		}
+		Snapshot placed = crash(gameId);
+		assertEquals(0, gamePersistenceService.load(gameId).orElseThrow().getJournalSeq());
+
+		gameService.recoverFromJournal();
+		assertEquals(placed, gameRegistry.read(gameId, Snapshot::of));
+		assertEquals(9, gamePersistenceService.load(gameId).orElseThrow().getJournalSeq());
+
+		// Последний корабль запускает игру и сохраняет её; выстрелы игрока и ответы ИИ — только в журнале
+		int[] last = FLEET[FLEET.length - 1];
+		assertTrue(gameService.placeShip(gameId, user.getId(), last[0], last[1], true, last[2]));
+		for (int i = 0; i < 3; i++) {
+			assertTrue(gameService.makeMove(gameId, user.getId(), i, 9 - i));
+		}
+		Snapshot played = crash(gameId);
+		assertEquals(Game.GameState.IN_PROGRESS, played.state());
+		assertEquals(16, played.journalSeq());
+		assertNotEquals(0, played.aiState().size());
+		assertEquals(10, gamePersistenceService.load(gameId).orElseThrow().getJournalSeq());
+
+		gameService.recoverFromJournal();
+		// Поля, очередь хода и состояние ИИ, собранное заново по его повторённым выстрелам
+		assertEquals(played, gameRegistry.read(gameId, Snapshot::of));
+		assertTrue(gameService.makeMove(gameId, user.getId(), 9, 9));
+	}
+}
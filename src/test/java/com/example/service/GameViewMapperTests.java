@@ -0,0 +1,95 @@
+package com.example.service;
+
+import com.example.dto.GameDelta;
+import com.example.dto.GameView;
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.model.Ship;
+import com.example.model.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameViewMapperTests {
+
+	private final GameViewMapper mapper = new GameViewMapper();
+
+	private static Player player(long userId) {
+		User user = new User("user" + userId, "password", null);
+		user.setId(userId);
+		return new Player(user);
+	}
+
+	private static Game gameOfTwo() {
+		Game game = new Game();
+		game.setPlayer1(player(1L));
+		game.setPlayer2(player(2L));
+		return game;
+	}
+
+	@Test
+	void hidesOpponentShipsUntilHit() {
+		Game game = gameOfTwo();
+		game.getPlayerBoard().placeShip(new Ship(0, 0, true, 2));
+		game.getAiBoard().placeShip(new Ship(5, 5, false, 1));
+		game.getAiBoard().placeShip(new Ship(0, 9, true, 2));
+		game.setState(Game.GameState.IN_PROGRESS);
+		game.makeMove(5, 5, true);
+		game.makeMove(0, 9, true);
+		game.makeMove(9, 0, true);
+
+		GameView firstView = mapper.toView(game, 1L);
+		assertTrue(firstView.isFirstPlayer());
+		assertEquals(100, firstView.getOwnBoard().length());
+		assertEquals("SS", "" + firstView.getOwnBoard().charAt(0) + firstView.getOwnBoard().charAt(10));
+		assertEquals('#', firstView.getOpponentBoard().charAt(55));
+		assertEquals('X', firstView.getOpponentBoard().charAt(9));
+		assertEquals('.', firstView.getOpponentBoard().charAt(19));
+		assertEquals('O', firstView.getOpponentBoard().charAt(90));
+
+		GameView secondView = mapper.toView(game, 2L);
+		assertFalse(secondView.isFirstPlayer());
+		assertEquals('S', secondView.getOwnBoard().charAt(19));
+		assertEquals('.', secondView.getOpponentBoard().charAt(0));
+	}
+
+	@Test
+	void spectatorSeesNoUnhitShipsUntilGameEnds() {
+		Game game = gameOfTwo();
+		game.getPlayerBoard().placeShip(new Ship(0, 0, true, 2));
+		game.getAiBoard().placeShip(new Ship(5, 5, true, 2));
+		game.setState(Game.GameState.IN_PROGRESS);
+		game.makeMove(5, 5, true);
+
+		for (Long viewer : new Long[] {null, 3L}) {
+			GameView view = mapper.toView(game, viewer);
+			assertTrue(view.isSpectator());
+			assertFalse(view.isFirstPlayer());
+			assertEquals(-1, view.getOwnBoard().indexOf('S'));
+			assertEquals(-1, view.getOpponentBoard().indexOf('S'));
+			assertEquals('X', view.getOpponentBoard().charAt(55));
+		}
+
+		game.setState(Game.GameState.FINISHED);
+		GameView finished = mapper.toView(game, null);
+		assertEquals('S', finished.getOwnBoard().charAt(0));
+		assertEquals('S', finished.getOpponentBoard().charAt(65));
+	}
+
+	@Test
+	void deltaContainsOnlyChangedCells() {
+		Game game = new Game();
+		game.getAiBoard().placeShip(new Ship(5, 5, true, 2));
+		byte[] base = GameChangeLog.snapshot(game);
+		game.makeMove(5, 5, true);
+		game.makeMove(0, 0, true);
+		game.makeMove(3, 3, false);
+
+		GameDelta delta = mapper.toDelta(game, null, 0, base);
+		assertFalse(delta.isFull());
+		assertEquals("00O55X", delta.getOpponentChanges());
+		assertEquals("33O", delta.getOwnChanges());
+
+		assertTrue(mapper.toDelta(game, null, 0, null).isFull());
+	}
+}
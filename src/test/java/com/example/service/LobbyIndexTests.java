@@ -0,0 +1,69 @@
+package com.example.service;
+
+import com.example.model.Difficulty;
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobbyIndexTests {
+
+	private final LobbyIndex index = new LobbyIndex();
+
+	private static Game openGame(long id, Difficulty difficulty, long createdAtSecond) {
+		Player host = new Player("host" + id);
+		host.setId(100 + id);
+		Game game = new Game();
+		game.setId(id);
+		game.setType(GameType.MULTI_PLAYER);
+		game.setDifficulty(difficulty);
+		game.setPlayer1(host);
+		game.setCreatedAt(Instant.ofEpochSecond(createdAtSecond));
+		return game;
+	}
+
+	private static List<Long> ids(List<LobbyIndex.OpenGame> page) {
+		return page.stream().map(LobbyIndex.OpenGame::gameId).toList();
+	}
+
+	@Test
+	void browsesOpenGamesInOrderWithCursor() {
+		index.track(openGame(1, Difficulty.HARD, 30));
+		index.track(openGame(2, Difficulty.EASY, 20));
+		index.track(openGame(3, Difficulty.HARD, 10));
+		index.track(openGame(4, Difficulty.EASY, 40));
+
+		List<LobbyIndex.OpenGame> first = index.browse(GameType.MULTI_PLAYER, null, null, 3);
+		assertEquals(List.of(2L, 4L, 3L), ids(first));
+		LobbyIndex.OpenGame cursor = LobbyIndex.OpenGame.fromCursor(first.get(2).cursor());
+		assertEquals(List.of(1L), ids(index.browse(GameType.MULTI_PLAYER, null, cursor, 3)));
+
+		assertEquals(List.of(3L, 1L), ids(index.browse(GameType.MULTI_PLAYER, Difficulty.HARD, null, 10)));
+		assertEquals(List.of(), ids(index.browse(GameType.SINGLE_PLAYER, null, null, 10)));
+	}
+
+	@Test
+	void joiningAndFinishingUpdateIndexes() {
+		Game game = openGame(1, null, 10);
+		index.track(game);
+		assertEquals(1, index.openCount());
+		assertEquals(1L, index.findGame(101L));
+
+		Player guest = new Player("guest");
+		guest.setId(200L);
+		game.setPlayer2(guest);
+		index.track(game);
+		assertEquals(0, index.openCount());
+		assertEquals(1L, index.findGame(200L));
+
+		game.setState(Game.GameState.FINISHED);
+		index.track(game);
+		assertNull(index.findGame(101L));
+		assertNull(index.findGame(200L));
+	}
+}
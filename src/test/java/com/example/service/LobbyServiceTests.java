@@ -0,0 +1,48 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.model.Player;
+import com.example.model.User;
+import com.example.repository.PlayerRepository;
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LobbyServiceTests {
+
+	@Autowired
+	private LobbyService lobbyService;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private Player player(String username) {
+		return new Player(userRepository.save(new User(username + System.nanoTime(), "password", null)));
+	}
+
+	@Test
+	void rejectedJoinLeavesNoPlayerRow() {
+		Player host = player("host");
+		Game game = lobbyService.createGame(host, GameType.MULTI_PLAYER, null);
+		long players = playerRepository.count();
+
+		assertThrows(RuntimeException.class, () -> lobbyService.joinGame(game.getId(), new Player(host.getUser())));
+		assertEquals(players, playerRepository.count());
+
+		lobbyService.joinGame(game.getId(), player("guest"));
+		assertEquals(players + 1, playerRepository.count());
+
+		assertThrows(RuntimeException.class, () -> lobbyService.joinGame(game.getId(), player("late")));
+		assertEquals(players + 1, playerRepository.count());
+	}
+}
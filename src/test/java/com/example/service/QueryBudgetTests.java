@@ -0,0 +1,138 @@
+package com.example.service;
+
+import com.example.dto.ShipPlacement;
+import com.example.metrics.MetricsRegistry;
+import com.example.model.Difficulty;
+import com.example.model.Game;
+import com.example.model.GameType;
+import com.example.model.Player;
+import com.example.model.Ship;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Предельное число SQL-инструкций на вызов сервиса. Фоновые задачи, которые ходят в базу,
+ * отложены, поэтому счётчик db.statements меняют только проверяемые вызовы.
+ */
+@SpringBootTest(properties = {
+		"game.journal.enabled=true",
+		"game.registry.flush-interval-ms=3600000",
+		"game.registry.eviction-interval-ms=3600000",
+		"game.timeouts.reap-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class QueryBudgetTests {
+
+	private static final int[][] FLEET = {{0, 0, 4}, {0, 2, 3}, {5, 2, 3}, {0, 4, 2}, {4, 4, 2}, {8, 4, 2},
+			{0, 6, 1}, {2, 6, 1}, {4, 6, 1}, {6, 6, 1}};
+
+	@Autowired
+	private GameService gameService;
+
+	@Autowired
+	private LobbyService lobbyService;
+
+	@Autowired
+	private GameRegistry gameRegistry;
+
+	@Autowired
+	private MoveJournal moveJournal;
+
+	@Autowired
+	private MetricsRegistry metrics;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private long statements(Runnable call) {
+		long before = metrics.counter("db.statements").sum();
+		call.run();
+		return metrics.counter("db.statements").sum() - before;
+	}
+
+	private Player player(String username) {
+		return new Player(userRepository.save(new User(username + System.nanoTime(), "password", null)));
+	}
+
+	private Game startedSinglePlayerGame() {
+		Game game = lobbyService.createGame(player("budget"), GameType.SINGLE_PLAYER, Difficulty.HARD);
+		List<ShipPlacement> fleet = new ArrayList<>();
+		for (int[] ship : FLEET) {
+			fleet.add(new ShipPlacement(ship[0], ship[1], true, ship[2]));
+		}
+		assertTrue(gameService.placeFleet(game.getId(), game.getPlayer1().getUser().getId(), fleet).isPlaced());
+		// Игра сохранена при старте; выгружаем её, чтобы следующий вызов загрузил её из базы
+		gameRegistry.remove(List.of(game.getId()));
+		return game;
+	}
+
+	@Test
+	void loadingSinglePlayerGameFetchesWholeAggregateInFewStatements() {
+		Long gameId = startedSinglePlayerGame().getId();
+		assertTrue(statements(() -> gameService.getView(gameId, null)) <= 4);
+	}
+
+	@Test
+	void loadingMultiPlayerGameFetchesPlayersAndTheirBoardsInFewStatements() {
+		Game game = lobbyService.createGame(player("host"), GameType.MULTI_PLAYER, null);
+		lobbyService.joinGame(game.getId(), player("guest"));
+		gameRegistry.flushDirty();
+		gameRegistry.remove(List.of(game.getId()));
+		assertTrue(statements(() -> gameService.getView(game.getId(), null)) <= 3);
+	}
+
+	@Test
+	void moveOnLoadedGameOnlyWritesJournal() {
+		Game game = startedSinglePlayerGame();
+		Long gameId = game.getId();
+		gameService.getView(gameId, null);
+		// Выстрел игрока и ответ ИИ — две записи журнала, сама игра сохранится фоном
+		assertEquals(2, statements(() -> gameService.makeMove(gameId, game.getPlayer1().getUser().getId(), 9, 9)));
+	}
+
+	@Test
+	void fleetJournalIsOneBatchedInsert() {
+		Game game = lobbyService.createGame(player("fleet"), GameType.SINGLE_PLAYER, Difficulty.HARD);
+		List<Ship> ships = new ArrayList<>();
+		for (int[] ship : FLEET) {
+			ships.add(new Ship(ship[0], ship[1], true, ship[2]));
+		}
+		// Десять строк журнала — одна подготовленная вставка без select перед ней
+		assertEquals(1, statements(() -> gameRegistry.update(game.getId(), g -> {
+			moveJournal.appendFleet(g, ships);
+			return null;
+		})));
+		assertEquals(FLEET.length, (int) gameRegistry.read(game.getId(), Game::getJournalSeq));
+	}
+
+	@Test
+	void statusOfUnloadedGameIsOneQuery() {
+		Long gameId = startedSinglePlayerGame().getId();
+		assertEquals(1, statements(() -> gameService.getGameStatus(gameId)));
+		assertEquals(1, statements(() -> gameService.getRevision(gameId)));
+	}
+
+	@Test
+	void seatOfUnloadedGameIsOneQuery() {
+		Game game = lobbyService.createGame(player("host"), GameType.MULTI_PLAYER, null);
+		Player guest = player("guest");
+		lobbyService.joinGame(game.getId(), guest);
+		gameRegistry.flushDirty();
+		gameRegistry.remove(List.of(game.getId()));
+		Long gameId = game.getId();
+
+		assertEquals(1, statements(() -> assertEquals(1, gameService.getSeat(gameId, game.getPlayer1().getUser().getId()))));
+		assertEquals(1, statements(() -> assertEquals(2, gameService.getSeat(gameId, guest.getUser().getId()))));
+		assertEquals(1, statements(() -> assertEquals(0, gameService.getSeat(gameId, -1L))));
+		assertEquals(0, statements(() -> assertEquals(0, gameService.getSeat(gameId, null))));
+	}
+}
@@ -0,0 +1,40 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenServiceTests {
+
+	@Test
+	void verifiesOwnTokensAndRejectsTamperedOrForeignOnes() {
+		SessionTokenService tokens = new SessionTokenService("secret", 60_000);
+		String token = tokens.issue(42L, "капитан");
+
+		SessionTokenService.SessionUser user = tokens.verify(token);
+		assertNotNull(user);
+		assertEquals(42L, user.userId());
+		assertEquals("капитан", user.username());
+
+		// Подмена одного символа данных или подписи ломает проверку, в том числе
+		// последнего символа подписи, младшие биты которого base64 не использует
+		int dot = token.indexOf('.');
+		assertNull(tokens.verify(replace(token, dot + 1)));
+		assertNull(tokens.verify(replace(token, token.length() - 1)));
+		assertNull(tokens.verify(replace(token, 0)));
+		assertNull(tokens.verify("garbage"));
+		assertNull(tokens.verify("не.base64"));
+		assertNull(new SessionTokenService("other-secret", 60_000).verify(token));
+	}
+
+	@Test
+	void rejectsExpiredTokens() {
+		SessionTokenService tokens = new SessionTokenService("secret", -1_000);
+		assertNull(tokens.verify(tokens.issue(1L, "a")));
+	}
+
+	private static String replace(String token, int index) {
+		char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+		return token.substring(0, index) + replacement + token.substring(index + 1);
+	}
+}